@@ -0,0 +1,90 @@
+package Bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import Vertex.VertexCoverApproximation;
+
+/**
+ * ApproximationBenchmark measures the two approximation
+ * algorithms on a loaded graph. algorithm3 is the list based
+ * original and is quadratic in the edges; matching is the
+ * single pass engine behind option 1; the parallel engines
+ * behind options 2 and 3 run on as many threads as there are
+ * processors. Every algorithm uses up the state it runs on, so
+ * a batch of fresh states is built ahead of each iteration and
+ * the iteration is timed as one shot over the batch, with no
+ * setup between calls.
+ *
+ * @author Siddhartha
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20, batchSize = ApproximationBenchmark.BATCH)
+@Measurement(iterations = 20, batchSize = ApproximationBenchmark.BATCH)
+public class ApproximationBenchmark {
+
+	static final int BATCH = 16;
+
+	@State(Scope.Thread)
+	public static class Cover {
+		VertexCoverApproximation[] vCovers = new VertexCoverApproximation[BATCH];
+		VertexCoverApproximation vCover;
+		int next = 0;
+
+		@Setup(Level.Iteration)
+		public void reset(GraphState state) {
+			for (int j = 0; j < BATCH; j++) {
+				vCovers[j] = new VertexCoverApproximation();
+				vCovers[j].processGraph(state.loaded);
+			}
+			next = 0;
+		}
+
+		VertexCoverApproximation next() {
+			vCover = vCovers[next++ % BATCH];
+			return vCover;
+		}
+	}
+
+	@Benchmark
+	public VertexCoverApproximation algorithm2(Cover cover) {
+		cover.next().algorithm2();
+		return cover.vCover;
+	}
+
+	@Benchmark
+	public VertexCoverApproximation algorithm3(Cover cover) {
+		cover.next().algorithm3();
+		return cover.vCover;
+	}
+
+	@Benchmark
+	public VertexCoverApproximation matching(Cover cover) {
+		cover.next().matching();
+		return cover.vCover;
+	}
+
+	@Benchmark
+	public VertexCoverApproximation parallelMatching(Cover cover) {
+		cover.next().parallelMatching(Runtime.getRuntime().availableProcessors());
+		return cover.vCover;
+	}
+
+	@Benchmark
+	public VertexCoverApproximation parallelAlgorithm2(Cover cover) {
+		cover.next().parallelAlgorithm2(Runtime.getRuntime().availableProcessors());
+		return cover.vCover;
+	}
+}
@@ -0,0 +1,35 @@
+package Bench;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * BenchmarkMain runs the benchmarks with the gc profiler on,
+ * so every result reports allocation rate next to throughput.
+ * Any JMH command line option can be added, for example
+ * "-p graph=rmat_5095_30012.graph Crown"; without a benchmark
+ * name every benchmark in Bench runs.
+ *
+ * @author Siddhartha
+ *
+ */
+public class BenchmarkMain {
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions cmd = new CommandLineOptions(args);
+		OptionsBuilder builder = new OptionsBuilder();
+		builder.parent(cmd).addProfiler(GCProfiler.class);
+		// JMH runs the union of the includes, so only add ours
+		// when the command line names none
+		if (cmd.getIncludes().isEmpty()) {
+			builder.include("Bench\\..*");
+		}
+		Options options = builder.build();
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,105 @@
+package Bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import Crown.CrownReduction;
+
+/**
+ * CrownBenchmark measures each phase of the crown reduction
+ * on its own. A phase changes the reduction it runs on, so
+ * every state builds a batch of reductions, run through the
+ * phases before the measured one, ahead of each iteration;
+ * the iteration is timed as one shot over the batch, with no
+ * setup between calls.
+ *
+ * @author Siddhartha
+ *
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 20, batchSize = CrownBenchmark.BATCH)
+@Measurement(iterations = 20, batchSize = CrownBenchmark.BATCH)
+public class CrownBenchmark {
+
+	static final int BATCH = 16;
+
+	@State(Scope.Thread)
+	public static class Loaded {
+		CrownReduction[] crowns = new CrownReduction[BATCH];
+		int next = 0;
+
+		@Setup(Level.Iteration)
+		public void reset(GraphState state) {
+			for (int j = 0; j < BATCH; j++) {
+				crowns[j] = new CrownReduction();
+				crowns[j].processGraph(state.loaded);
+			}
+			next = 0;
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Split {
+		CrownReduction[] crowns = new CrownReduction[BATCH];
+		int next = 0;
+
+		@Setup(Level.Iteration)
+		public void reset(GraphState state) {
+			for (int j = 0; j < BATCH; j++) {
+				crowns[j] = new CrownReduction();
+				crowns[j].processGraph(state.loaded);
+				crowns[j].findSubGraph();
+			}
+			next = 0;
+		}
+	}
+
+	@State(Scope.Thread)
+	public static class Matched {
+		CrownReduction[] crowns = new CrownReduction[BATCH];
+		int next = 0;
+
+		@Setup(Level.Iteration)
+		public void reset(GraphState state) {
+			for (int j = 0; j < BATCH; j++) {
+				crowns[j] = new CrownReduction();
+				crowns[j].processGraph(state.loaded);
+				crowns[j].findSubGraph();
+				crowns[j].hopcroftMatching();
+			}
+			next = 0;
+		}
+	}
+
+	@Benchmark
+	public CrownReduction findSubGraph(Loaded loaded) {
+		CrownReduction crown = loaded.crowns[loaded.next++ % BATCH];
+		crown.findSubGraph();
+		return crown;
+	}
+
+	@Benchmark
+	public CrownReduction hopcroftMatching(Split split) {
+		CrownReduction crown = split.crowns[split.next++ % BATCH];
+		crown.hopcroftMatching();
+		return crown;
+	}
+
+	@Benchmark
+	public CrownReduction obtainCrown(Matched matched) {
+		CrownReduction crown = matched.crowns[matched.next++ % BATCH];
+		crown.obtainCrown();
+		return crown;
+	}
+}
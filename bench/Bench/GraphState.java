@@ -0,0 +1,41 @@
+package Bench;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import Vertex.Graph;
+import Vertex.GraphLoader;
+
+/**
+ * GraphState loads one of the bundled rmat graphs once per
+ * trial. The graphs are looked up in the directory named by
+ * the vc.graphs system property, or the working directory.
+ *
+ * @author Siddhartha
+ *
+ */
+@State(Scope.Benchmark)
+public class GraphState {
+
+	@Param({"rmat_16_33.graph", "rmat_28_68.graph", "rmat_54_153.graph",
+		"rmat_102_369.graph", "rmat_191_767.graph", "rmat_366_1608.graph",
+		"rmat_705_3391.graph", "rmat_1377_7087.graph", "rmat_2625_14583.graph",
+		"rmat_5095_30012.graph", "rmat_9858_61354.graph", "rmat_18952_124419.graph",
+		"rmat_36739_251829.graph"})
+	public String graph;
+
+	public String path;
+	public Graph loaded;
+
+	@Setup(Level.Trial)
+	public void load() throws IOException {
+		path = Paths.get(System.getProperty("vc.graphs", "."), graph).toString();
+		loaded = GraphLoader.load(path);
+	}
+}
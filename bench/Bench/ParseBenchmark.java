@@ -0,0 +1,22 @@
+package Bench;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+
+import Vertex.Graph;
+import Vertex.GraphLoader;
+
+/**
+ * ParseBenchmark measures loading a graph file into a Graph.
+ *
+ * @author Siddhartha
+ *
+ */
+public class ParseBenchmark {
+
+	@Benchmark
+	public Graph parse(GraphState state) throws IOException {
+		return GraphLoader.load(state.path);
+	}
+}
@@ -0,0 +1,42 @@
+package Bench;
+
+import java.util.BitSet;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import Clique.VertexCoverVerification;
+import Vertex.VertexCoverApproximation;
+
+/**
+ * VerifyBenchmark measures checking a valid cover, the
+ * worst case for verifyAnswer since no edge stops it early.
+ *
+ * @author Siddhartha
+ *
+ */
+public class VerifyBenchmark {
+
+	@State(Scope.Thread)
+	public static class Candidate {
+		VertexCoverVerification ver = new VertexCoverVerification();
+		BitSet cover = new BitSet();
+
+		@Setup(Level.Trial)
+		public void reset(GraphState state) {
+			ver.processGraph(state.loaded);
+			VertexCoverApproximation vCover = new VertexCoverApproximation();
+			vCover.processGraph(state.loaded);
+			vCover.matching();
+			cover.or(vCover.getOutput());
+		}
+	}
+
+	@Benchmark
+	public boolean verifyAnswer(Candidate candidate) {
+		return candidate.ver.verifyAnswer(candidate.cover);
+	}
+}
@@ -0,0 +1,223 @@
+package Clique;
+
+import java.util.Arrays;
+
+/**
+ * CliqueSolver decides if a graph given as bitset rows has a
+ * clique of a given size, in the style of BBMC. The vertices
+ * are renumbered by falling degree and every set of candidates
+ * is a row of long words, so taking the candidates adjacent to
+ * a vertex is one AND per word.
+ *
+ * Each node of the search colors its candidates greedily, one
+ * color class at a time: the class takes the lowest candidate
+ * left, drops its neighbors with an AND NOT, and repeats until
+ * no candidate fits. A clique holds at most one vertex of each
+ * color, so the color of a candidate bounds the clique it can
+ * finish. The candidates are tried from the highest color
+ * down, and a branch stops as soon as its bound cannot reach
+ * the size asked for. Candidates whose color is too low to
+ * matter are never listed.
+ *
+ * @author Siddhartha
+ *
+ */
+public class CliqueSolver {
+
+	private int n;
+	private int words;
+	private long[][] rows;
+	private int[] order;
+
+	private int target;
+	private int[] clique;
+	private int cliqueSize = 0;
+	private boolean found = false;
+	private long nodes = 0;
+
+	private long[][] candidates;
+	private long[] uncolored;
+	private long[] colorClass;
+	private int[] stackVertex = new int[64];
+	private int[] stackColor = new int[64];
+	private int stackSize = 0;
+
+	/**
+	 * Copies a graph, renumbering its vertices by falling degree.
+	 * @param adjacency bit j of row i is set when i and j share an
+	 * edge; a row has at least (n + 63) / 64 words
+	 * @param n the number of vertices
+	 */
+	public CliqueSolver(long[][] adjacency, int n) {
+		this.n = n;
+		words = (n + 63) >>> 6;
+		long[] keys = new long[n];
+		for (int v = 0; v < n; v++) {
+			int degree = 0;
+			for (int w = 0; w < words; w++) {
+				degree += Long.bitCount(adjacency[v][w]);
+			}
+			keys[v] = (long) (n - degree) << 32 | v;
+		}
+		Arrays.sort(keys);
+		order = new int[n];
+		int[] number = new int[n];
+		for (int i = 0; i < n; i++) {
+			order[i] = (int) keys[i];
+			number[order[i]] = i;
+		}
+		rows = new long[n][words];
+		for (int i = 0; i < n; i++) {
+			long[] from = adjacency[order[i]];
+			long[] to = rows[i];
+			for (int w = 0; w < words; w++) {
+				for (long x = from[w]; x != 0; x &= x - 1) {
+					int j = number[(w << 6) + Long.numberOfTrailingZeros(x)];
+					to[j >>> 6] |= 1L << j;
+				}
+			}
+		}
+		candidates = new long[n + 1][];
+		uncolored = new long[words];
+		colorClass = new long[words];
+		clique = new int[n];
+	}
+
+	/**
+	 * Looks for a clique of at least a given size.
+	 * @param size the size of the clique
+	 * @return clique the vertices of a clique of that size, or
+	 * null if there is none
+	 */
+	public int[] find(int size) {
+		nodes = 0;
+		cliqueSize = 0;
+		found = false;
+		stackSize = 0;
+		if (size <= 0) {
+			return new int[0];
+		}
+		if (size > n) {
+			return null;
+		}
+		target = size;
+		long[] all = candidates(0);
+		Arrays.fill(all, -1L);
+		if ((n & 63) != 0) {
+			all[words - 1] = (1L << n) - 1;
+		}
+		expand(0);
+		if (!found) {
+			return null;
+		}
+		int[] result = new int[cliqueSize];
+		for (int i = 0; i < cliqueSize; i++) {
+			result[i] = order[clique[i]];
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the number of search nodes of the last find.
+	 * @return nodes the number of calls to expand
+	 */
+	public long getNodes() {
+		return nodes;
+	}
+
+	/**
+	 * Colors the candidates at a depth and branches on them from
+	 * the highest color down.
+	 */
+	private void expand(int depth) {
+		nodes++;
+		long[] p = candidates[depth];
+		int base = stackSize;
+		color(p, target - cliqueSize);
+		long[] next = null;
+		for (int s = stackSize - 1; s >= base; s--) {
+			if (cliqueSize + stackColor[s] < target) {
+				break;
+			}
+			int v = stackVertex[s];
+			clique[cliqueSize++] = v;
+			if (cliqueSize == target) {
+				found = true;
+				break;
+			}
+			if (next == null) {
+				next = candidates(depth + 1);
+			}
+			long[] row = rows[v];
+			boolean empty = true;
+			for (int w = 0; w < words; w++) {
+				next[w] = p[w] & row[w];
+				empty &= next[w] == 0;
+			}
+			if (!empty) {
+				expand(depth + 1);
+				if (found) {
+					break;
+				}
+			}
+			cliqueSize--;
+			p[v >>> 6] &= ~(1L << v);
+		}
+		stackSize = base;
+	}
+
+	/**
+	 * Colors a set of candidates greedily and pushes those of
+	 * color at least min on the stack, in the order colored.
+	 */
+	private void color(long[] p, int min) {
+		System.arraycopy(p, 0, uncolored, 0, words);
+		int first = 0;
+		int k = 1;
+		while (true) {
+			while (first < words && uncolored[first] == 0) {
+				first++;
+			}
+			if (first == words) {
+				return;
+			}
+			System.arraycopy(uncolored, first, colorClass, first, words - first);
+			int w = first;
+			while (true) {
+				while (w < words && colorClass[w] == 0) {
+					w++;
+				}
+				if (w == words) {
+					break;
+				}
+				int v = (w << 6) + Long.numberOfTrailingZeros(colorClass[w]);
+				uncolored[w] &= ~(1L << v);
+				colorClass[w] &= ~(1L << v);
+				long[] row = rows[v];
+				for (int x = w; x < words; x++) {
+					colorClass[x] &= ~row[x];
+				}
+				if (k >= min) {
+					push(v, k);
+				}
+			}
+			k++;
+		}
+	}
+
+	private void push(int v, int k) {
+		if (stackSize == stackVertex.length) {
+			stackVertex = Arrays.copyOf(stackVertex, 2 * stackSize);
+			stackColor = Arrays.copyOf(stackColor, 2 * stackSize);
+		}
+		stackVertex[stackSize] = v;
+		stackColor[stackSize++] = k;
+	}
+
+	private long[] candidates(int depth) {
+		if (candidates[depth] == null) {
+			candidates[depth] = new long[words];
+		}
+		return candidates[depth];
+	}
+}
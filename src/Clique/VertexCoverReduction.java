@@ -1,192 +1,340 @@
 package Clique;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.Scanner;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.BitSet;
 
-import Vertex.Edge;
+import Vertex.Graph;
+import Vertex.GraphBuilder;
+import Vertex.GraphLoader;
+import Vertex.IntWriter;
+import Vertex.Metrics;
 
 /**
  * VertexCoverReduction is a class that runs a graph file
  * to check if it has a vertex cover of size k. It
- * reduces the problem to finding a clique of size k
- * to verify if the answer exists. 
- * 
+ * reduces the problem to finding a clique of size |V| - k
+ * in the complement graph, since the vertices left out of a
+ * vertex cover share no edge. The complement graph is
+ * streamed to the output one sorted adjacency row at a time,
+ * either as an edge list or as adjacency bitsets, or kept in
+ * memory as bitset rows and searched by the CliqueSolver.
+ *
  * @author Siddhartha
  *
  */
 public class VertexCoverReduction {
 
-	ArrayList<Edge> edges = new ArrayList<Edge>();
-	ArrayList<Edge> invertedEdges = new ArrayList<Edge>();
-	ArrayList<Integer> vertexList = new ArrayList<Integer>();
+	Graph graph;
+	int[] vertexList;
+	int[] index;
 	int size = 0;
-	
+	long nodes = 0;
+	Metrics metrics = new Metrics("VertexCoverReduction");
+
 	public static void main(String[] args) {
-		long time = System.nanoTime();
-		if (args.length != 2) {
-			System.out.println("Usage: java VertexCoverApproximation <graph> [k]");
+		VertexCoverReduction reduc = new VertexCoverReduction();
+		if (args.length != 2 && args.length != 3) {
+			System.out.println("Usage: java VertexCoverReduction <graph> [k] [edges|bits|clique]");
 		} else {
-			VertexCoverReduction reduc = new VertexCoverReduction();
-			reduc.startUI(args[0], args[1]);
+			if (args.length == 2) {
+				reduc.startUI(args[0], args[1]);
+			} else {
+				reduc.startUI(args[0], args[1], args[2]);
+			}
 		}
-		System.out.println("Runtime = " + (System.nanoTime() - time));
+		reduc.metrics.report(System.out);
 	}
-	
+
 	/**
 	 * Runs through the methods to write the final
 	 * output to file
-	 * 
+	 *
 	 * @param file the input file
 	 * @param option the size of the vertex cover, k
 	 */
 	public void startUI(String file, String option) {
-		Scanner input = getInputScanner(file);
-		PrintStream output = getOutputPrintStream();
-		processInput(input);
-		countVertex();
-		completeGraph();
-		complementGraph();
-		finalPrint(output);
-		//int k = Integer.parseInt(option);
-		//CliqueDecision.decide("invertedGraph.txt", k);
+		startUI(file, option, "edges");
 	}
-	
+
 	/**
-	 * Gets the input file and returns it.
-	 * 
-	 * @param name a String to obtain an input file.
-	 * @return input the input file to be manipulated.
+	 * Runs through the methods to write the complement graph
+	 * to file as an edge list or as adjacency bitsets
+	 *
+	 * @param file the input file
+	 * @param option the size of the vertex cover, k
+	 * @param format "edges" for edgeListFilename.txt, "bits"
+	 * for edgeListFilename.bits or "clique" to decide k and
+	 * write the cover to cliqueOutput.txt
 	 */
-	public Scanner getInputScanner(String name) {
-		Scanner input = null;	
+	public void startUI(String file, String option, String format) {
+		metrics.begin("processInput");
+		processInput(file);
+		metrics.count("edges", graph.getEdgeCount());
+		metrics.begin("countVertex");
+		countVertex();
+		metrics.count("vertices", vertexList.length);
+		if (format.equals("clique")) {
+			metrics.begin("decide");
+			BitSet cover = decide(Integer.parseInt(option));
+			metrics.end();
+			metrics.count("nodes", nodes);
+			if (cover == null) {
+				System.out.println("no");
+			} else {
+				System.out.println("yes");
+				IntWriter output = new IntWriter(getOutputPrintStream("cliqueOutput.txt"));
+				output.writeSet(cover, graph);
+				output.close();
+			}
+			return;
+		}
+		metrics.begin("complementGraph");
+		if (format.equals("bits")) {
 			try {
-				input = new Scanner(new File(name));
-			} catch (FileNotFoundException e) {
+				complementBits("edgeListFilename.bits");
+			} catch (IOException e) {
 				System.out.println(e.getMessage());
 			}
-		return input;
+		} else {
+			PrintStream output = getOutputPrintStream();
+			complementGraph(output);
+			output.close();
+		}
+		metrics.end();
 	}
-	
+
 	/**
 	 * Initializes an output file and returns it.
-	 * 
+	 *
 	 * @return output the output file to write to.
 	 */
 	public PrintStream getOutputPrintStream() {
+		return getOutputPrintStream("edgeListFilename.txt");
+	}
+
+	/**
+	 * Initializes an output file and returns it.
+	 *
+	 * @param name the name of the file
+	 * @return output the output file to write to.
+	 */
+	public PrintStream getOutputPrintStream(String name) {
 		PrintStream output = null;
-		String name = "edgeListFilename.txt";
 
 		try {
-			output = new PrintStream(new File(name));
+			output = new PrintStream(new BufferedOutputStream(
+					new FileOutputStream(new File(name)), 1 << 16));
 		} catch (FileNotFoundException e) {
 			System.out.println(e.getMessage());
 		}
 		return output;
 	}
-	
+
 	/**
-	 * Processes the input file and populates the ArrayList.
-	 * 
-	 * @param input scanner that contains the file to process
+	 * Processes the input file and populates the graph.
+	 *
+	 * @param file the name of the file to process
 	 */
-	public void processInput(Scanner input) {
-		int v1;
-		int v2;
-		while (input.hasNextLine()) {
-			v1 = input.nextInt();
-			v2 = input.nextInt();
-			input.nextLine().trim();
-			Edge e = new Edge(v1, v2);
-			edges.add(e);
-			if (size < v1) {
-				size = v1;
-			}
-			if (size < v2) {
-				size = v2;
-			}
+	public void processInput(String file) {
+		try {
+			graph = GraphLoader.load(file);
+		} catch (IOException e) {
+			System.out.println(e.getMessage());
+			graph = new GraphBuilder().build();
 		}
-		size++;
+		size = graph.getSize();
 	}
-	
+
 	/**
-	 * This method creates an array list of all of the vertices
-	 * in the graph
+	 * This method lists all of the vertices in the graph and
+	 * the position of each vertex in that list
 	 */
 	public void countVertex() {
-		int[] tally = new int[size];
-		Edge e;
-		Iterator<Edge> itr = edges.iterator();
-		while (itr.hasNext()) {
-			e = itr.next();
-			tally[e.getV1()] = 1;
-			tally[e.getV2()] = 1;
-		}
-		for (int i = 0; i < tally.length; i++) {
-			if (tally[i] != 0) {
-				vertexList.add(i);
+		vertexList = new int[graph.getVertexCount()];
+		index = new int[size];
+		Arrays.fill(index, -1);
+		int n = 0;
+		for (int i = 0; i < size; i++) {
+			if (graph.degree(i) != 0) {
+				index[i] = n;
+				vertexList[n++] = i;
+			}
+		}
+	}
+
+	/**
+	 * Writes the complement graph to the original input graph.
+	 * Each vertex walks its sorted neighbors alongside the
+	 * higher vertices, so every missing edge is found in
+	 * O(V^2 + E) without building the complete graph.
+	 * @param o PrintStream prints to file.
+	 */
+	public void complementGraph(PrintStream o) {
+		int[] offsets = graph.getOffsets();
+		int[] neighbors = graph.getNeighbors();
+		IntWriter writer = new IntWriter(o);
+		int v1;
+		int v2;
+		int p;
+		for (int i = 0; i < vertexList.length; i++) {
+			v1 = vertexList[i];
+			p = offsets[v1];
+			for (int j = i + 1; j < vertexList.length; j++) {
+				v2 = vertexList[j];
+				while (p < offsets[v1 + 1] && neighbors[p] < v2) {
+					p++;
+				}
+				if (p == offsets[v1 + 1] || neighbors[p] != v2) {
+					writer.writeEdge(graph.getId(v1), graph.getId(v2));
+				}
 			}
 		}
+		writer.flush();
 	}
-	
+
 	/**
-	 * Creates the complete graph where all of the vertices
-	 * are connected to each other
+	 * Decides if the graph has a vertex cover of size at most k
+	 * by looking for a clique of size |V| - k in its complement.
+	 * The complement is built in memory as bitset rows and is
+	 * never written out. A vertex with a loop is in every cover,
+	 * so it is put in the cover and left out of the search.
+	 *
+	 * @param k the size of the vertex cover
+	 * @return cover a vertex cover of size at most k, or null if
+	 * there is none
 	 */
-	public void completeGraph() {
-		for (int i = 0; i < vertexList.size(); i++) {
-			for (int j = i + 1; j < vertexList.size(); j++) {
-				Edge e = new Edge(i, j);
-				invertedEdges.add(e);
+	public BitSet decide(int k) {
+		if (k < 0) {
+			return null;
+		}
+		int n = vertexList.length;
+		BitSet cover = new BitSet(size);
+		int[] free = new int[n];
+		int m = 0;
+		for (int i = 0; i < n; i++) {
+			if (graph.hasEdge(vertexList[i], vertexList[i])) {
+				cover.set(vertexList[i]);
+			} else {
+				free[m++] = i;
+			}
+		}
+		if (k < n - m) {
+			return null;
+		}
+		long[][] rows = new long[m][(m + 63) >>> 6];
+		if (m == n) {
+			for (int i = 0; i < n; i++) {
+				complementRow(i, rows[i]);
+			}
+		} else {
+			long[] row = new long[(n + 63) >>> 6];
+			for (int a = 0; a < m; a++) {
+				complementRow(free[a], row);
+				for (int b = 0; b < m; b++) {
+					if ((row[free[b] >>> 6] & 1L << free[b]) != 0) {
+						rows[a][b >>> 6] |= 1L << b;
+					}
+				}
 			}
 		}
+		CliqueSolver solver = new CliqueSolver(rows, m);
+		// the loops take n - m of k, leaving a clique of m - k + n - m
+		int[] clique = solver.find(n - k);
+		nodes = solver.getNodes();
+		if (clique == null) {
+			return null;
+		}
+		for (int a = 0; a < m; a++) {
+			cover.set(vertexList[free[a]]);
+		}
+		for (int i = 0; i < clique.length; i++) {
+			cover.clear(vertexList[free[clique[i]]]);
+		}
+		return cover;
 	}
-	
+
 	/**
-	 * Compares two edges to see if they are equal
-	 * @param e1 an edge to compare
-	 * @param e2 an edge to compare
-	 * @return true if equal, otherwise false
+	 * Fills a row of the complement adjacency as a bitset over
+	 * the positions in vertexList.
+	 * @param i the position of the vertex in vertexList
+	 * @param row the bitset words to fill, at least
+	 * (vertexList.length + 63) / 64 long
 	 */
-	public boolean edgeCompare(Edge e1, Edge e2) {
-		if (e1.getV1() != e2.getV1()) {
-			return false;
+	void complementRow(int i, long[] row) {
+		int n = vertexList.length;
+		int words = (n + 63) >>> 6;
+		Arrays.fill(row, 0, words, -1L);
+		if ((n & 63) != 0) {
+			row[words - 1] = (1L << n) - 1;
 		}
-		if (e1.getV2() != e2.getV2()) {
-			return false;
+		row[i >>> 6] &= ~(1L << i);
+		int[] offsets = graph.getOffsets();
+		int[] neighbors = graph.getNeighbors();
+		int v = vertexList[i];
+		int j;
+		for (int p = offsets[v]; p < offsets[v + 1]; p++) {
+			j = index[neighbors[p]];
+			row[j >>> 6] &= ~(1L << j);
 		}
-		return true;
 	}
-	
+
 	/**
-	 * Creates the complement graph to the original input graph
+	 * Writes the complement graph as adjacency bitsets: the
+	 * number of vertices and words per row, the vertex list by
+	 * input id, then one row of long words per vertex, little endian.
+	 * Bit j of row i is set when vertexList[i] and vertexList[j]
+	 * do not share an edge in the input graph.
+	 * @param name the name of the output file
+	 * @throws IOException if the file cannot be written
 	 */
-	public void complementGraph() {
-		Edge e;
-		Iterator<Edge> itr = invertedEdges.iterator();
-		while (itr.hasNext()) {
-			e = itr.next();
-			for (int i = 0; i < edges.size(); i++) {
-				if (edgeCompare(e, edges.get(i))) {
-					itr.remove();
+	public void complementBits(String name) throws IOException {
+		int n = vertexList.length;
+		int words = (n + 63) >>> 6;
+		long[] row = new long[words];
+		FileChannel channel = FileChannel.open(Paths.get(name), StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+		try {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+			buffer.putInt(n);
+			buffer.putInt(words);
+			for (int i = 0; i < n; i++) {
+				flushIfFull(channel, buffer);
+				buffer.putInt(graph.getId(vertexList[i]));
+			}
+			for (int i = 0; i < n; i++) {
+				complementRow(i, row);
+				for (int w = 0; w < words; w++) {
+					flushIfFull(channel, buffer);
+					buffer.putLong(row[w]);
 				}
 			}
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		} finally {
+			channel.close();
 		}
 	}
-	
-	/**
-	 * Prints the inverted graph edges to a file.
-	 * @param o PrintStream prints to file.
-	 */
-	public void finalPrint(PrintStream o) {
-		Edge e;
-		Iterator<Edge> itr = invertedEdges.iterator();
-		while(itr.hasNext()) {
-			e = itr.next();
-			o.println(e.getV1() + " " + e.getV2());
+
+	private void flushIfFull(FileChannel channel, ByteBuffer buffer) throws IOException {
+		if (buffer.remaining() < 8) {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
 		}
 	}
 }
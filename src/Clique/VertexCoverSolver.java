@@ -0,0 +1,351 @@
+package Clique;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.BitSet;
+
+import Vertex.Graph;
+import Vertex.GraphBuilder;
+import Vertex.GraphLoader;
+import Vertex.IntWriter;
+import Vertex.Kernel;
+import Vertex.Metrics;
+
+/**
+ * VertexCoverSolver is a class that answers exactly whether a
+ * graph has a vertex cover of size k, and writes one when it
+ * does. The graph is first kernelized with the degree 0, 1 and
+ * 2 rules and the Buss rule, then the kernel is searched by
+ * branching on a vertex of the highest degree: either it is in
+ * the cover or all of its neighbors are. A branch is cut when
+ * a maximal matching needs more than the budget left.
+ *
+ * @author Siddhartha
+ *
+ */
+public class VertexCoverSolver {
+
+	Graph graph;
+	int[] offsets;
+	int[] neighbors;
+	int[] deg;
+	boolean[] alive;
+	int[] chosen;
+	int chosenSize = 0;
+	int edges = 0;
+	long branches = 0;
+	Metrics metrics = new Metrics("VertexCoverSolver");
+
+	public static void main(String[] args) {
+		VertexCoverSolver solver = new VertexCoverSolver();
+		if (args.length != 2) {
+			System.out.println("Usage: java VertexCoverSolver <graph> [k]");
+		} else {
+			solver.startUI(args[0], args[1]);
+		}
+		solver.metrics.report(System.out);
+	}
+
+	/**
+	 * Runs through the methods to decide the graph and write
+	 * the cover, if there is one, to file
+	 *
+	 * @param file the input file
+	 * @param option the size of the vertex cover, k
+	 */
+	public void startUI(String file, String option) {
+		Graph input;
+		metrics.begin("processInput");
+		try {
+			input = GraphLoader.load(file);
+		} catch (IOException e) {
+			System.out.println(e.getMessage());
+			input = new GraphBuilder().build();
+		}
+		metrics.count("edges", input.getEdgeCount());
+		int k = Integer.parseInt(option);
+		metrics.begin("solve");
+		BitSet cover = solve(input, k);
+		metrics.end();
+		metrics.count("branches", branches);
+		if (cover == null) {
+			System.out.println("no");
+		} else {
+			System.out.println("yes");
+			IntWriter output = new IntWriter(getOutputPrintStream());
+			output.writeSet(cover, input);
+			output.close();
+		}
+	}
+
+	/**
+	 * Initializes an output file and returns it.
+	 *
+	 * @return output the output file to write to.
+	 */
+	public PrintStream getOutputPrintStream() {
+		PrintStream output = null;
+		String name = "solverOutput.txt";
+
+		try {
+			output = new PrintStream(new File(name));
+		} catch (FileNotFoundException e) {
+			System.out.println(e.getMessage());
+		}
+		return output;
+	}
+
+	/**
+	 * Decides if a graph has a vertex cover of size at most k.
+	 *
+	 * @param input the graph
+	 * @param k the size of the vertex cover
+	 * @return cover a vertex cover of size at most k, or null if
+	 * there is none
+	 */
+	public BitSet solve(Graph input, int k) {
+		if (k < 0) {
+			return null;
+		}
+		Kernel kernel = new Kernel(input);
+		if (!kernel.reduce(k)) {
+			return null;
+		}
+		graph = kernel.getKernel();
+		int n = graph.getSize();
+		offsets = graph.getOffsets();
+		neighbors = graph.getNeighbors();
+		deg = new int[n];
+		alive = new boolean[n];
+		chosen = new int[n];
+		chosenSize = 0;
+		branches = 0;
+		for (int v = 0; v < n; v++) {
+			deg[v] = graph.degree(v);
+			alive[v] = true;
+		}
+		edges = graph.getEdgeCount();
+		if (!search(k - kernel.getOffset())) {
+			return null;
+		}
+		BitSet kernelCover = new BitSet(n);
+		for (int i = 0; i < chosenSize; i++) {
+			kernelCover.set(chosen[i]);
+		}
+		return kernel.unfold(kernelCover);
+	}
+
+	/**
+	 * Returns the number of branches the last search made.
+	 * @return branches the number of search calls
+	 */
+	public long getBranches() {
+		return branches;
+	}
+
+	/**
+	 * Searches for a cover of the live graph within a budget.
+	 * On success the cover is left in chosen; on failure every
+	 * change is undone.
+	 *
+	 * @param k the budget left
+	 * @return true if a cover was found
+	 */
+	boolean search(int k) {
+		branches++;
+		int mark = chosenSize;
+		int n = deg.length;
+
+		boolean changed = true;
+		while (changed && k >= 0) {
+			changed = false;
+			for (int v = 0; v < n && k >= 0; v++) {
+				if (!alive[v] || deg[v] == 0) {
+					continue;
+				}
+				if (deg[v] == 1) {
+					take(aliveNeighbor(v));
+					k--;
+					changed = true;
+				} else if (deg[v] > k) {
+					take(v);
+					k--;
+					changed = true;
+				}
+			}
+		}
+		if (k < 0) {
+			undo(mark);
+			return false;
+		}
+		if (edges == 0) {
+			return true;
+		}
+
+		int best = -1;
+		for (int v = 0; v < n; v++) {
+			if (alive[v] && (best < 0 || deg[best] < deg[v])) {
+				best = v;
+			}
+		}
+		if ((long) k * deg[best] < edges || matchingBound() > k) {
+			undo(mark);
+			return false;
+		}
+		if (deg[best] <= 2) {
+			if (coverCycles(k)) {
+				return true;
+			}
+			undo(mark);
+			return false;
+		}
+
+		int branch = chosenSize;
+		take(best);
+		if (search(k - 1)) {
+			return true;
+		}
+		undo(branch);
+
+		int d = deg[best];
+		for (int p = offsets[best]; p < offsets[best + 1]; p++) {
+			if (alive[neighbors[p]]) {
+				take(neighbors[p]);
+			}
+		}
+		if (search(k - d)) {
+			return true;
+		}
+		undo(mark);
+		return false;
+	}
+
+	/**
+	 * Returns the size of a greedy maximal matching of the live
+	 * graph. Every cover needs a vertex of each matched edge.
+	 */
+	int matchingBound() {
+		int n = deg.length;
+		boolean[] matched = new boolean[n];
+		int size = 0;
+		for (int v = 0; v < n; v++) {
+			if (!alive[v] || matched[v]) {
+				continue;
+			}
+			for (int p = offsets[v]; p < offsets[v + 1]; p++) {
+				int u = neighbors[p];
+				if (alive[u] && !matched[u]) {
+					matched[u] = true;
+					matched[v] = true;
+					size++;
+					break;
+				}
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Covers a live graph that, after the degree 1 rule, is made
+	 * only of cycles. A cycle of length L needs ceil(L / 2)
+	 * vertices: every second one, plus the last if L is odd.
+	 *
+	 * @param k the budget left
+	 * @return true if the cycles fit in the budget
+	 */
+	boolean coverCycles(int k) {
+		int n = deg.length;
+		int mark = chosenSize;
+		int need = 0;
+		int[] cycle = new int[n];
+		for (int s = 0; s < n; s++) {
+			if (!alive[s] || deg[s] == 0) {
+				continue;
+			}
+			int length = 0;
+			int prev = -1;
+			int v = s;
+			do {
+				cycle[length++] = v;
+				int next = -1;
+				for (int p = offsets[v]; p < offsets[v + 1]; p++) {
+					int u = neighbors[p];
+					if (alive[u] && u != prev) {
+						next = u;
+						break;
+					}
+				}
+				prev = v;
+				v = next;
+			} while (v != s && v >= 0);
+			need += (length + 1) / 2;
+			if (need > k) {
+				undo(mark);
+				return false;
+			}
+			for (int i = 1; i < length; i += 2) {
+				take(cycle[i]);
+			}
+			if ((length & 1) == 1) {
+				take(cycle[length - 1]);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the first live neighbor of a vertex.
+	 */
+	int aliveNeighbor(int v) {
+		for (int p = offsets[v]; p < offsets[v + 1]; p++) {
+			if (alive[neighbors[p]]) {
+				return neighbors[p];
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Puts a vertex in the cover and drops its edges.
+	 */
+	void take(int v) {
+		remove(v);
+		chosen[chosenSize++] = v;
+	}
+
+	/**
+	 * Takes a vertex out of the live graph.
+	 */
+	private void remove(int v) {
+		alive[v] = false;
+		for (int p = offsets[v]; p < offsets[v + 1]; p++) {
+			if (alive[neighbors[p]]) {
+				deg[neighbors[p]]--;
+				edges--;
+			}
+		}
+	}
+
+	/**
+	 * Puts back every vertex chosen or removed since a mark,
+	 * newest first, so each sees the same live neighbors it
+	 * left.
+	 */
+	void undo(int mark) {
+		while (chosenSize > mark) {
+			restore(chosen[--chosenSize]);
+		}
+	}
+
+	private void restore(int v) {
+		for (int p = offsets[v]; p < offsets[v + 1]; p++) {
+			if (alive[neighbors[p]]) {
+				deg[neighbors[p]]++;
+				edges++;
+			}
+		}
+		alive[v] = true;
+	}
+}
@@ -1,130 +1,275 @@
 package Clique;
 
-import java.io.File;
+import java.io.BufferedReader;
 import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
 import java.util.ArrayList;
-import java.util.Scanner;
+import java.util.BitSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
-import Vertex.Edge;
+import Vertex.Graph;
+import Vertex.GraphBuilder;
+import Vertex.GraphLoader;
+import Vertex.Metrics;
 
 /**
  * VertexCoverVerification is a class that runs two different
  * files, one that contains the graph and another that contains
  * candidate solutions. The program then checks the candidate
  * solutions to see if they are a vertex cover of size k.
- * 
+ * Each candidate is turned into a BitSet and checked in one
+ * pass over the edges, so candidate lines can be checked on
+ * several threads at once.
+ *
  * @author Siddhartha
  *
  */
 public class VertexCoverVerification {
 
-	ArrayList<Edge> edges = new ArrayList<Edge>();
-	ArrayList<Integer> vertexList = new ArrayList<Integer>();
-	String verificationMessage = "yes";
-	
+	static final int BATCH_SIZE = 4096;
+
+	Graph graph;
+	Metrics metrics = new Metrics("VertexCoverVerification");
+	long candidates = 0;
+	long covers = 0;
+
+	/**
+	 * Main method that checks for the arguments and starts the
+	 * verification. The answers go to standard output and the
+	 * metrics to standard error.
+	 * @param args array of command line inputs
+	 */
 	public static void main(String[] args) {
-		if (args.length != 3) {
-			System.out.println("Usage: java VertexCoverApproximation <graph> <candidate solution> [k]");
+		VertexCoverVerification ver = new VertexCoverVerification();
+		if (args.length != 3 && args.length != 4) {
+			System.out.println("Usage: java VertexCoverApproximation <graph> <candidate solution> [k] [threads]");
 		} else {
-			VertexCoverVerification ver = new VertexCoverVerification();
-			ver.startUI(args[0], args[1], args[2]);
+			if (args.length == 3) {
+				ver.startUI(args[0], args[1], args[2]);
+			} else {
+				ver.startUI(args[0], args[1], args[2], Integer.parseInt(args[3]));
+			}
 		}
+		ver.metrics.report(System.err);
 	}
-	
+
 	/**
 	 * Runs through the methods to verify solutions
 	 * output to file
-	 * 
+	 *
 	 * @param graph the graph file
 	 * @param answer the candidate solution file
 	 * @param option the size of the vertex cover, k
 	 */
 	public void startUI(String graph, String answer, String option) {
-		Scanner input = getInputScanner(graph);
-		Scanner ans = getInputScanner(answer);
-		processInput(input);
+		startUI(graph, answer, option, 1);
+	}
+
+	/**
+	 * Runs through the methods to verify solutions, checking
+	 * candidate lines on a number of threads. The answers are
+	 * printed in the order of the candidate lines.
+	 *
+	 * @param graph the graph file
+	 * @param answer the candidate solution file
+	 * @param option the size of the vertex cover, k
+	 * @param threads the number of threads to check with
+	 */
+	public void startUI(String graph, String answer, String option, int threads) {
+		BufferedReader ans = getInputReader(answer);
+		if (ans == null) {
+			return;
+		}
+		metrics.begin("processInput");
+		processInput(graph);
+		metrics.count("edges", this.graph.getEdgeCount());
 		int k = Integer.parseInt(option);
-		
-		while (ans.hasNextLine()) {
-			Scanner line = new Scanner(ans.nextLine());
-			vertexList = processAns(line);
-			if (k != vertexList.size()) {
-				verificationMessage = "no";
+
+		metrics.begin("verify");
+		try {
+			if (threads <= 1) {
+				String line;
+				String answerLine;
+				while ((line = ans.readLine()) != null) {
+					answerLine = verify(line, k);
+					System.out.println(answerLine);
+					countAnswer(answerLine);
+				}
 			} else {
-				verifyAnswer();
+				verifyParallel(ans, k, threads);
 			}
-			System.out.println(verificationMessage);
-			verificationMessage = "yes";
+			ans.close();
+		} catch (IOException e) {
+			System.out.println(e.getMessage());
 		}
+		metrics.end();
+		metrics.count("candidates", candidates);
+		metrics.count("covers", covers);
 	}
-	
+
 	/**
 	 * Gets the input file and returns it.
-	 * 
+	 *
 	 * @param name a String to obtain an input file.
 	 * @return input the input file to be manipulated.
 	 */
-	public Scanner getInputScanner(String name) {
-		Scanner input = null;	
-			try {
-				input = new Scanner(new File(name));
-			} catch (FileNotFoundException e) {
-				System.out.println(e.getMessage());
-			}
+	public BufferedReader getInputReader(String name) {
+		BufferedReader input = null;
+		try {
+			input = new BufferedReader(new FileReader(name), 1 << 16);
+		} catch (FileNotFoundException e) {
+			System.out.println(e.getMessage());
+		}
 		return input;
 	}
-	
+
 	/**
-	 * Processes the input file and populates the ArrayList.
-	 * 
-	 * @param input scanner that contains the file to process
+	 * Processes the input file and populates the graph.
+	 *
+	 * @param file the name of the file to process
 	 */
-	public void processInput(Scanner input) {
-		int v1;
-		int v2;
-		while (input.hasNextLine()) {
-			v1 = input.nextInt();
-			v2 = input.nextInt();
-			input.nextLine().trim();
-			Edge e = new Edge(v1, v2);
-			edges.add(e);
+	public void processInput(String file) {
+		try {
+			graph = GraphLoader.load(file);
+		} catch (IOException e) {
+			System.out.println(e.getMessage());
+			graph = new GraphBuilder().build();
 		}
 	}
-	
+
 	/**
-	 * Processes the answer line into an array list
-	 * @param line Scanner that contains a line of input
-	 * @return ans an array list of vertices
+	 * Uses a graph that is already loaded.
+	 *
+	 * @param g the graph to verify against
 	 */
-	public ArrayList<Integer> processAns(Scanner line) {
-		ArrayList<Integer> ans = new ArrayList<Integer>();
-		
-		while (line.hasNextInt()) {
-			ans.add(line.nextInt());
+	public void processGraph(Graph g) {
+		graph = g;
+	}
+
+	/**
+	 * Checks one candidate line. Like the Scanner it replaces,
+	 * it reads integers up to the first token that is not one,
+	 * and every integer read counts towards the size. The
+	 * integers are the ids the vertices were read with.
+	 *
+	 * @param line a line of candidate vertices
+	 * @param k the size of the vertex cover
+	 * @return "yes" if the line is a vertex cover of size k,
+	 * otherwise "no"
+	 */
+	public String verify(String line, int k) {
+		BitSet cover = new BitSet(graph.getSize());
+		int count = 0;
+		int i = 0;
+		int n = line.length();
+		while (i < n) {
+			while (i < n && Character.isWhitespace(line.charAt(i))) {
+				i++;
+			}
+			int start = i;
+			while (i < n && !Character.isWhitespace(line.charAt(i))) {
+				i++;
+			}
+			if (start == i) {
+				break;
+			}
+			int v;
+			try {
+				v = Integer.parseInt(line.substring(start, i));
+			} catch (NumberFormatException e) {
+				break;
+			}
+			count++;
+			v = graph.getIndex(v);
+			if (v >= 0) {
+				cover.set(v);
+			}
+		}
+		if (count != k || !verifyAnswer(cover)) {
+			return "no";
 		}
-		return ans;
+		return "yes";
 	}
-	
+
 	/**
-	 * Verifies if the candidate solution is correct
+	 * Verifies if the candidate solution is correct, stopping
+	 * at the first edge it does not cover
+	 *
+	 * @param cover the candidate vertices
+	 * @return true if every edge has a vertex in cover
 	 */
-	public void verifyAnswer() {
-		for (int i = 0; i < edges.size(); i++) {
-			for (int j = 0; j < vertexList.size(); j++) {
-				if (edges.get(i).getV1() == vertexList.get(j) ||
-					edges.get(i).getV2() == vertexList.get(j)) {
-					
-					edges.get(i).setFlag(true);
+	public boolean verifyAnswer(BitSet cover) {
+		for (int i = 0; i < graph.getEdgeCount(); i++) {
+			if (!cover.get(graph.getV1(i)) && !cover.get(graph.getV2(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Verifies candidate lines on a pool of threads. Lines are
+	 * read in batches, and each batch is printed in order once
+	 * its answers are in.
+	 *
+	 * @param ans the candidate solution file
+	 * @param k the size of the vertex cover
+	 * @param threads the number of threads
+	 * @throws IOException if the candidate file cannot be read
+	 */
+	public void verifyParallel(BufferedReader ans, final int k, int threads) throws IOException {
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		ArrayList<Future<String>> answers = new ArrayList<Future<String>>(BATCH_SIZE);
+		try {
+			String line;
+			while ((line = ans.readLine()) != null) {
+				final String candidate = line;
+				answers.add(pool.submit(new Callable<String>() {
+					public String call() {
+						return verify(candidate, k);
+					}
+				}));
+				if (answers.size() == BATCH_SIZE) {
+					printAnswers(answers);
 				}
 			}
+			printAnswers(answers);
+		} finally {
+			pool.shutdownNow();
 		}
-		
-		for (int i = 0; i < edges.size(); i++) {
-			if (!edges.get(i).getFlag()) {
-				verificationMessage = "no";
-			} else {
-				edges.get(i).setFlag(false);
+	}
+
+	/**
+	 * Prints a batch of answers in order and empties the list.
+	 * @param answers the pending answers
+	 */
+	private void printAnswers(ArrayList<Future<String>> answers) {
+		StringBuilder out = new StringBuilder();
+		for (int i = 0; i < answers.size(); i++) {
+			try {
+				String answerLine = answers.get(i).get();
+				out.append(answerLine).append(System.lineSeparator());
+				countAnswer(answerLine);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException(e);
+			} catch (ExecutionException e) {
+				throw new IllegalStateException(e.getCause());
 			}
 		}
+		System.out.print(out);
+		answers.clear();
+	}
+
+	private void countAnswer(String answerLine) {
+		candidates++;
+		if (answerLine.equals("yes")) {
+			covers++;
+		}
 	}
 }
@@ -1,18 +1,20 @@
 package Crown;
 
+import java.io.BufferedOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.io.PrintStream;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.Iterator;
-import java.util.Scanner;
-import java.util.Set;
+import java.util.Arrays;
+import java.util.BitSet;
 
-import org.jgrapht.UndirectedGraph;
-import org.jgrapht.alg.HopcroftKarpBipartiteMatching;
-import org.jgrapht.graph.DefaultEdge;
-import org.jgrapht.graph.SimpleGraph;
+import Vertex.Graph;
+import Vertex.GraphBuilder;
+import Vertex.GraphLoader;
+import Vertex.HopcroftKarp;
+import Vertex.IntWriter;
+import Vertex.Metrics;
 
 /**
  * CrownReduction is a class that takes an undirected
@@ -22,27 +24,36 @@ import org.jgrapht.graph.SimpleGraph;
  * created containing the vertices that belong in the
  * vertex cover from the crown and the rest of the graph
  * minus the crown.
- * 
+ *
+ * The graph, the two sides of the subgraph and the crown
+ * are all kept in primitive arrays over the CSR graph, and
+ * the matching between the sides is found by HopcroftKarp.
+ * With the iterate option, crowns are removed round after
+ * round until none is left, each round starting from the
+ * matchings of the one before.
+ *
  * @author Siddhartha
  *
  */
 public class CrownReduction {
-	
-	UndirectedGraph<Integer, DefaultEdge> graph = 
-            new SimpleGraph<Integer, DefaultEdge>(DefaultEdge.class);
-	UndirectedGraph<Integer, DefaultEdge> subGraph = 
-            new SimpleGraph<Integer, DefaultEdge>(DefaultEdge.class);
-	UndirectedGraph<Integer, DefaultEdge> finalCrown = 
-            new SimpleGraph<Integer, DefaultEdge>(DefaultEdge.class);
-	
-	Set<Integer> i = new HashSet<Integer>(new ArrayList<Integer>());
-    Set<Integer> m = new HashSet<Integer>(new ArrayList<Integer>());
-    Set<Integer> crownOutput = new HashSet<Integer>(new ArrayList<Integer>());
-    Set<Integer> vertices = new HashSet<Integer>(new ArrayList<Integer>());
-    Set<Integer> cVertices = new HashSet<Integer>(new ArrayList<Integer>());
-    Set<Integer> pVertices = new HashSet<Integer>(new ArrayList<Integer>());
-    
-    Set<DefaultEdge> maximum;
+
+	static final int FREE = -1;
+
+	Graph graph;
+	Graph input;
+	int size = 0;
+
+	int[] mate;
+	boolean[] inM;
+	int[] i;
+	int iCount = 0;
+
+	HopcroftKarp maximum;
+
+	BitSet crownOutput = new BitSet();
+	BitSet finalCrown = new BitSet();
+
+	Metrics metrics = new Metrics("CrownReduction");
 
 	/**
 	 * Main method that checks for a file argument and starts the
@@ -50,14 +61,13 @@ public class CrownReduction {
 	 * @param args array of command line inputs
 	 */
 	public static void main(String[] args) {
-		long time = System.nanoTime();
-		if (args.length != 1) {
-			System.out.println("Usage: java CrownReduction <filename>");
+		CrownReduction crown = new CrownReduction();
+		if (args.length != 1 && !(args.length == 2 && args[1].equals("iterate"))) {
+			System.out.println("Usage: java CrownReduction <filename> [iterate]");
 		} else {
-			CrownReduction crown = new CrownReduction();
-			crown.startUI(args[0]);
+			crown.startUI(args[0], args.length == 2);
 		}
-		System.out.println("Runtime = " + (System.nanoTime() - time));
+		crown.metrics.report(System.out);
 	}
 
 	/**
@@ -65,35 +75,57 @@ public class CrownReduction {
 	 * outputs to file
 	 */
 	public void startUI(String file) {
-		Scanner input = getInputScanner(file);
+		startUI(file, false);
+	}
+
+	/**
+	 * Runs through the methods to write the final outputs to
+	 * file, removing crowns until none is left if asked to
+	 *
+	 * @param file the input file
+	 * @param iterate true to keep removing crowns
+	 */
+	public void startUI(String file, boolean iterate) {
 		PrintStream crown = getOutputPrintStream("crownOutput.txt");
 		PrintStream reduc = getOutputPrintStream("reductionOutput.txt");
-		processInput(input);
+		metrics.begin("processInput");
+		processInput(file);
+		metrics.count("edges", graph.getEdgeCount());
+		metrics.begin("findSubGraph");
 		findSubGraph();
+		metrics.begin("hopcroftMatching");
 		hopcroftMatching();
+		metrics.begin("obtainCrown");
 		obtainCrown();
-		removeCrown(crown, reduc);
-	}
-	
-	/**
-	 * Gets the input file and returns it.
-	 * 
-	 * @param name a String to obtain an input file.
-	 * @return input the input file to be manipulated.
-	 */
-	public Scanner getInputScanner(String name) {
-		Scanner input = null;	
-			try {
-				input = new Scanner(new File(name));
-			} catch (FileNotFoundException e) {
-				System.out.println(e.getMessage());
+		int round = 1;
+		if (iterate) {
+			metrics.begin("reduceGraph");
+			while (reduceGraph()) {
+				metrics.end();
+				System.out.println("Round " + round + ": kernel " + graph.getVertexCount()
+						+ " vertices, " + graph.getEdgeCount() + " edges, "
+						+ crownOutput.cardinality() + " forced");
+				metrics.begin("hopcroftMatching");
+				hopcroftMatching();
+				metrics.begin("obtainCrown");
+				obtainCrown();
+				metrics.begin("reduceGraph");
+				round++;
 			}
-		return input;
+		}
+		metrics.count("rounds", round);
+		metrics.count("matching", maximum.getSize());
+		metrics.count("crown", crownOutput.cardinality());
+		metrics.begin("removeCrown");
+		removeCrown(crown, reduc);
+		crown.close();
+		reduc.close();
+		metrics.end();
 	}
-	
+
 	/**
 	 * Initializes an output file and returns it.
-	 * 
+	 *
 	 * @return output the output file to write to.
 	 */
 	public PrintStream getOutputPrintStream(String filename) {
@@ -101,192 +133,253 @@ public class CrownReduction {
 		String name = filename;
 
 		try {
-			output = new PrintStream(new File(name));
+			output = new PrintStream(new BufferedOutputStream(
+					new FileOutputStream(new File(name)), 1 << 16));
 		} catch (FileNotFoundException e) {
 			System.out.println(e.getMessage());
 		}
 		return output;
 	}
-	
+
 	/**
-	 * Processes the input file and populates the ArrayList.
-	 * 
-	 * @param input scanner that contains the file to process
+	 * Processes the input file and populates the graph.
+	 *
+	 * @param file the name of the file to process
 	 */
-	public void processInput(Scanner input) {
-		int v1;
-		int v2;
-		while(input.hasNextLine()) {
-			v1 = input.nextInt();
-			v2 = input.nextInt();
-			input.nextLine().trim();
-			
-			graph.addVertex(v1);
-			graph.addVertex(v2);
-			graph.addEdge(v1, v2);
+	public void processInput(String file) {
+		try {
+			graph = GraphLoader.load(file);
+		} catch (IOException e) {
+			System.out.println(e.getMessage());
+			graph = new GraphBuilder().build();
 		}
+		processGraph(graph);
+	}
+
+	/**
+	 * Starts over on a graph that is already loaded, clearing
+	 * any crown found before.
+	 *
+	 * @param g the graph to reduce
+	 */
+	public void processGraph(Graph g) {
+		graph = g;
+		input = g;
+		size = graph.getSize();
+		maximum = null;
+		crownOutput = new BitSet();
+		finalCrown = new BitSet();
 	}
-	
+
 	/**
 	 * This method find the subgraph within the undirected graph
 	 * that is made up of a set of independent edges and a set
-	 * of independent vertices.
+	 * of independent vertices. A greedy maximal matching over
+	 * the edges in input order gives the edges, m, and the
+	 * unmatched vertices, i, are independent because the
+	 * matching is maximal. Every edge of a vertex in i goes to
+	 * m, so the subgraph is read straight from the rows of i.
 	 */
 	public void findSubGraph() {
-		Set<DefaultEdge> graphEdges = graph.edgeSet();
-		vertices.addAll(graph.vertexSet());
-		Iterator<DefaultEdge> itr = graphEdges.iterator();
-		DefaultEdge e;
+		mate = new int[size];
+		inM = new boolean[size];
+		Arrays.fill(mate, FREE);
 		int v1;
 		int v2;
-		while(itr.hasNext()) {
-			e = itr.next();
-			v1 = graph.getEdgeSource(e);
-			v2 = graph.getEdgeTarget(e);
-			
-			if (vertices.contains(v1) && vertices.contains(v2)) {
-				m.add(v1);
-				m.add(v2);
-				vertices.remove(v1);
-				vertices.remove(v2);
+		for (int e = 0; e < graph.getEdgeCount(); e++) {
+			v1 = graph.getV1(e);
+			v2 = graph.getV2(e);
+			if (!inM[v1] && !inM[v2]) {
+				inM[v1] = true;
+				inM[v2] = true;
+				mate[v1] = v2;
+				mate[v2] = v1;
 			}
 		}
-		
-		i = vertices;
-		Iterator<Integer> itrInt = vertices.iterator();
-		int independant;
-		Set<DefaultEdge> indEdges;
-		while(itrInt.hasNext()) {
-			independant = itrInt.next();
-			indEdges = graph.edgesOf(independant);
-			itr = indEdges.iterator();
-			while(itr.hasNext()) {
-				e = itr.next();
-				v1 = graph.getEdgeSource(e);
-				v2 = graph.getEdgeTarget(e);
-				
-				subGraph.addVertex(v1);
-				subGraph.addVertex(v2);
-				subGraph.addEdge(v1, v2);
+
+		i = new int[size];
+		iCount = 0;
+		for (int v = 0; v < size; v++) {
+			if (!inM[v] && graph.degree(v) > 0) {
+				i[iCount++] = v;
 			}
 		}
-		
-		Set<DefaultEdge> subEdges = subGraph.edgeSet();
-		Set<Integer> subVertices = subGraph.vertexSet();
-		itr = subEdges.iterator();
-		while(itr.hasNext()) {
-			e = itr.next();
-			v1 = graph.getEdgeSource(e);
-			v2 = graph.getEdgeTarget(e);
-			if (!subVertices.contains(v1)) {
-				subGraph.removeEdge(e);
-				m.remove(v1);
+	}
+
+	/**
+	 * Uses the Hopcroft Matching method to find the maximum
+	 * matching between the two sets of input vertices, then
+	 * keeps in i only the vertices it leaves unmatched.
+	 */
+	public void hopcroftMatching() {
+		HopcroftKarp previous = maximum;
+		maximum = new HopcroftKarp(graph.getOffsets(), graph.getNeighbors(), size, i, iCount);
+		if (previous != null) {
+			int[] matchLeft = previous.getMatchLeft();
+			int r;
+			for (int j = 0; j < iCount; j++) {
+				if (i[j] < matchLeft.length) {
+					r = matchLeft[i[j]];
+					if (r != FREE && inM[r] && !finalCrown.get(r)) {
+						maximum.match(i[j], r);
+					}
+				}
 			}
-			if (!subVertices.contains(v2)) {
-				subGraph.removeEdge(e);
-				m.remove(v2);
+		}
+		maximum.run();
+		int[] matchLeft = maximum.getMatchLeft();
+		int n = 0;
+		for (int j = 0; j < iCount; j++) {
+			if (matchLeft[i[j]] == FREE) {
+				i[n++] = i[j];
 			}
 		}
+		iCount = n;
 	}
-	
+
 	/**
-	 * Uses the Hopcroft Matching method to return the set of
-	 * maximum matching edges between the two sets of input vertices. 
+	 * Takes the matching from Hopcroft's method and uses it to
+	 * locate the crown structure within the subgraph. Starting
+	 * from the unmatched vertices of i, every neighbor joins the
+	 * crown head and its matched partner joins the crown, until
+	 * no new vertex is reached.
 	 */
-	public void hopcroftMatching() {
-		HopcroftKarpBipartiteMatching<Integer, DefaultEdge> hkbm = 
-				new HopcroftKarpBipartiteMatching<Integer, DefaultEdge>(subGraph, i, m);
-		maximum = hkbm.getMatching();
-		Iterator<DefaultEdge> itr = maximum.iterator();
-		DefaultEdge e;
-		while(itr.hasNext()) {
-			e = itr.next();
-			i.remove(subGraph.getEdgeSource(e));
-			i.remove(subGraph.getEdgeTarget(e));
+	public void obtainCrown() {
+		int[] offsets = graph.getOffsets();
+		int[] neighbors = graph.getNeighbors();
+		int[] matchRight = maximum.getMatchRight();
+		int[] queue = new int[size];
+		int head = 0;
+		int tail = 0;
+		int io;
+		int h;
+		for (int j = 0; j < iCount; j++) {
+			finalCrown.set(i[j]);
+			queue[tail++] = i[j];
+		}
+		while (head < tail) {
+			io = queue[head++];
+			for (int p = offsets[io]; p < offsets[io + 1]; p++) {
+				h = neighbors[p];
+				if (!finalCrown.get(h)) {
+					finalCrown.set(h);
+					crownOutput.set(h);
+					if (matchRight[h] != FREE && !finalCrown.get(matchRight[h])) {
+						finalCrown.set(matchRight[h]);
+						queue[tail++] = matchRight[h];
+					}
+				}
+			}
 		}
 	}
-	
+
 	/**
-	 * Takes the set of edges from Hopcroft's method and uses
-	 * it to locate the crown structure within the subgraph
+	 * Removes the crown found last from the graph and sets up
+	 * the subgraph for the next round. The maximal matching is
+	 * repaired rather than rebuilt: only the vertices whose
+	 * partner was in the crown lose their match, and only they
+	 * can have a free neighbor to match again. hopcroftMatching
+	 * then starts from the pairs of the last matching that are
+	 * still in the graph.
+	 *
+	 * @return true if a crown was removed, false at the fixed
+	 * point
 	 */
-	public void obtainCrown() {
-		Set<DefaultEdge> neighbors;
-		Iterator<Integer> itrInt = i.iterator();
-		Integer io;
-		Iterator<DefaultEdge> itr;
-		DefaultEdge e;
+	public boolean reduceGraph() {
+		if (iCount == 0) {
+			return false;
+		}
+		GraphBuilder builder = new GraphBuilder(graph.getEdgeCount());
 		int v1;
 		int v2;
-		while(itrInt.hasNext()) {
-			io = itrInt.next();
-			neighbors = subGraph.edgesOf(io);
-			itr = neighbors.iterator();
-			while(itr.hasNext()) {
-				e = itr.next();
-				v1 = subGraph.getEdgeSource(e);
-				v2 = subGraph.getEdgeTarget(e);
-				finalCrown.addVertex(v1);
-				finalCrown.addVertex(v2);
-				finalCrown.addEdge(v1, v2);
-				i.remove(io);
+		for (int e = 0; e < graph.getEdgeCount(); e++) {
+			v1 = graph.getV1(e);
+			v2 = graph.getV2(e);
+			if (!finalCrown.get(v1) && !finalCrown.get(v2)) {
+				builder.addEdge(v1, v2);
 			}
-			
-			cVertices.addAll(finalCrown.vertexSet());
-			itr = maximum.iterator();
-			while(itr.hasNext()) {
-				e = itr.next();
-				v1 = subGraph.getEdgeSource(e);
-				v2 = subGraph.getEdgeTarget(e);
-				if (cVertices.contains(v1) && cVertices.contains(v2)) {
-					//Do nothing
-				} else {
-					if (cVertices.contains(v1)) {
-						finalCrown.addVertex(v2);
-						finalCrown.addEdge(v1, v2);
-						i.add(v2);
-						crownOutput.add(v1);
-					}
-					if (cVertices.contains(v2)) {
-						finalCrown.addVertex(v1);
-						finalCrown.addEdge(v1, v2);
-						i.add(v1);
-						crownOutput.add(v2);
-					}
+		}
+		graph = builder.build();
+
+		int[] freed = new int[size];
+		int freedCount = 0;
+		int u;
+		for (int v = finalCrown.nextSetBit(0); v >= 0; v = finalCrown.nextSetBit(v + 1)) {
+			if (mate[v] != FREE) {
+				u = mate[v];
+				mate[v] = FREE;
+				if (!finalCrown.get(u)) {
+					mate[u] = FREE;
+					inM[u] = false;
+					freed[freedCount++] = u;
 				}
 			}
-			
-			itrInt = i.iterator();
 		}
+		int[] offsets = graph.getOffsets();
+		int[] neighbors = graph.getNeighbors();
+		for (int j = 0; j < freedCount; j++) {
+			u = freed[j];
+			if (inM[u] || u >= graph.getSize()) {
+				continue;
+			}
+			for (int p = offsets[u]; p < offsets[u + 1]; p++) {
+				if (!inM[neighbors[p]]) {
+					inM[u] = true;
+					inM[neighbors[p]] = true;
+					mate[u] = neighbors[p];
+					mate[neighbors[p]] = u;
+					break;
+				}
+			}
+		}
+
+		iCount = 0;
+		for (int v = 0; v < graph.getSize(); v++) {
+			if (!inM[v] && graph.degree(v) > 0) {
+				i[iCount++] = v;
+			}
+		}
+		return true;
 	}
-	
+
+	/**
+	 * Returns the graph left after the crowns removed so far.
+	 * @return graph the reduced graph
+	 */
+	public Graph getGraph() {
+		return graph;
+	}
+
+	/**
+	 * Returns the crown vertices that belong in the vertex cover.
+	 * @return crownOutput the forced cover vertices
+	 */
+	public BitSet getCrownOutput() {
+		return crownOutput;
+	}
+
 	/**
 	 * Prints the vertices from the crown that are part of the
 	 * vertex cover and the rest of the undirected graph minus
-	 * the crown.
+	 * the crown, by the ids the vertices were read with.
 	 * @param c an output for the crown vertices in the vertex cover
 	 * @param r an output for the graph minus the crown
 	 */
 	public void removeCrown(PrintStream c, PrintStream r) {
-		pVertices.addAll(finalCrown.vertexSet());
-		graph.removeAllVertices(pVertices);
-		Iterator<Integer> itrInt = crownOutput.iterator();
-		Integer io;
-		while(itrInt.hasNext()) {
-			io = itrInt.next();
-			c.println(io);
-		}
-		
+		IntWriter crown = new IntWriter(c);
+		crown.writeSet(crownOutput, input);
+		crown.flush();
+
+		IntWriter reduc = new IntWriter(r);
 		int v1;
 		int v2;
-		Set<DefaultEdge> reduced = graph.edgeSet();
-		Iterator<DefaultEdge> itr = reduced.iterator();
-		DefaultEdge e;
-		while(itr.hasNext()) {
-			e = itr.next();
-			v1 = subGraph.getEdgeSource(e);
-			v2 = subGraph.getEdgeTarget(e);
-			r.println(v1 + " " + v2);
+		for (int e = 0; e < graph.getEdgeCount(); e++) {
+			v1 = graph.getV1(e);
+			v2 = graph.getV2(e);
+			if (!finalCrown.get(v1) && !finalCrown.get(v2)) {
+				reduc.writeEdge(input.getId(v1), input.getId(v2));
+			}
 		}
+		reduc.flush();
 	}
 }
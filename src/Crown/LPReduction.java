@@ -0,0 +1,276 @@
+package Crown;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.BitSet;
+
+import Vertex.Graph;
+import Vertex.GraphBuilder;
+import Vertex.GraphLoader;
+import Vertex.HopcroftKarp;
+import Vertex.IntWriter;
+import Vertex.Metrics;
+
+/**
+ * LPReduction is a class that reduces a graph with the theorem
+ * of Nemhauser and Trotter. The linear program of vertex cover
+ * has an optimum where every vertex is 0, 1/2 or 1, and some
+ * minimum cover takes every vertex at 1 and none at 0, so only
+ * the vertices at 1/2 are left to decide. There are at most
+ * twice the LP optimum of them.
+ *
+ * The optimum is read from a HopcroftKarp maximum matching of
+ * the bipartite double cover, which is the graph's own CSR read
+ * from left to right. By the theorem of Konig the left copies
+ * not reached by alternating paths from the free left copies,
+ * and the right copies that are reached, form a minimum cover
+ * of the double cover; a vertex is at 1 when both of its
+ * copies are in it, at 0 when neither is, and at 1/2 otherwise.
+ * Unlike the crown, which starts from a greedy matching, this
+ * finds every vertex a crown could fix and usually more.
+ *
+ * @author Siddhartha
+ *
+ */
+public class LPReduction {
+
+	static final int FREE = -1;
+
+	Graph graph;
+	int size = 0;
+
+	HopcroftKarp maximum;
+
+	BitSet lpOutput = new BitSet();
+	BitSet half = new BitSet();
+
+	Metrics metrics = new Metrics("LPReduction");
+
+	/**
+	 * Main method that checks for a file argument and starts the
+	 * reduction.
+	 * @param args array of command line inputs
+	 */
+	public static void main(String[] args) {
+		LPReduction lp = new LPReduction();
+		if (args.length != 1) {
+			System.out.println("Usage: java LPReduction <filename>");
+		} else {
+			lp.startUI(args[0]);
+		}
+		lp.metrics.report(System.out);
+	}
+
+	/**
+	 * Runs through the methods to write the vertices at 1 and
+	 * the graph left on the vertices at 1/2 to file
+	 *
+	 * @param file the input file
+	 */
+	public void startUI(String file) {
+		PrintStream fixed = getOutputPrintStream("lpOutput.txt");
+		PrintStream reduc = getOutputPrintStream("lpReductionOutput.txt");
+		metrics.begin("processInput");
+		processInput(file);
+		metrics.count("edges", graph.getEdgeCount());
+		metrics.begin("lpMatching");
+		lpMatching();
+		metrics.begin("obtainValues");
+		obtainValues();
+		metrics.end();
+		metrics.count("matching", maximum.getSize());
+		metrics.count("bound", getBound());
+		metrics.count("forced", lpOutput.cardinality());
+		metrics.count("half", half.cardinality());
+		metrics.begin("removeFixed");
+		removeFixed(fixed, reduc);
+		fixed.close();
+		reduc.close();
+		metrics.end();
+	}
+
+	/**
+	 * Initializes an output file and returns it.
+	 *
+	 * @return output the output file to write to.
+	 */
+	public PrintStream getOutputPrintStream(String filename) {
+		PrintStream output = null;
+
+		try {
+			output = new PrintStream(new BufferedOutputStream(
+					new FileOutputStream(new File(filename)), 1 << 16));
+		} catch (FileNotFoundException e) {
+			System.out.println(e.getMessage());
+		}
+		return output;
+	}
+
+	/**
+	 * Processes the input file and populates the graph.
+	 *
+	 * @param file the name of the file to process
+	 */
+	public void processInput(String file) {
+		try {
+			graph = GraphLoader.load(file);
+		} catch (IOException e) {
+			System.out.println(e.getMessage());
+			graph = new GraphBuilder().build();
+		}
+		processGraph(graph);
+	}
+
+	/**
+	 * Starts over on a graph that is already loaded.
+	 *
+	 * @param g the graph to reduce
+	 */
+	public void processGraph(Graph g) {
+		graph = g;
+		size = graph.getSize();
+		maximum = null;
+		lpOutput = new BitSet();
+		half = new BitSet();
+	}
+
+	/**
+	 * Finds a maximum matching of the bipartite double cover,
+	 * started from a greedy one.
+	 */
+	public void lpMatching() {
+		int[] offsets = graph.getOffsets();
+		int[] neighbors = graph.getNeighbors();
+		int[] left = new int[size];
+		int leftCount = 0;
+		for (int v = 0; v < size; v++) {
+			if (offsets[v + 1] > offsets[v]) {
+				left[leftCount++] = v;
+			}
+		}
+		maximum = new HopcroftKarp(offsets, neighbors, size, left, leftCount);
+		for (int j = 0; j < leftCount; j++) {
+			int v = left[j];
+			for (int p = offsets[v]; p < offsets[v + 1]; p++) {
+				if (maximum.match(v, neighbors[p])) {
+					break;
+				}
+			}
+		}
+		maximum.run();
+	}
+
+	/**
+	 * Walks the alternating paths from the free left copies and
+	 * gives every vertex its value: lpOutput holds the vertices
+	 * at 1 and half the vertices at 1/2.
+	 */
+	public void obtainValues() {
+		int[] offsets = graph.getOffsets();
+		int[] neighbors = graph.getNeighbors();
+		int[] matchLeft = maximum.getMatchLeft();
+		int[] matchRight = maximum.getMatchRight();
+		boolean[] reachedLeft = new boolean[size];
+		boolean[] reachedRight = new boolean[size];
+		int[] queue = new int[size];
+		int head = 0;
+		int tail = 0;
+		for (int v = 0; v < size; v++) {
+			if (offsets[v + 1] > offsets[v] && matchLeft[v] == FREE) {
+				reachedLeft[v] = true;
+				queue[tail++] = v;
+			}
+		}
+		int u;
+		int r;
+		while (head < tail) {
+			u = queue[head++];
+			for (int p = offsets[u]; p < offsets[u + 1]; p++) {
+				r = neighbors[p];
+				if (!reachedRight[r]) {
+					reachedRight[r] = true;
+					if (matchRight[r] != FREE && !reachedLeft[matchRight[r]]) {
+						reachedLeft[matchRight[r]] = true;
+						queue[tail++] = matchRight[r];
+					}
+				}
+			}
+		}
+		for (int v = 0; v < size; v++) {
+			if (offsets[v + 1] == offsets[v]) {
+				continue;
+			}
+			if (!reachedLeft[v] && reachedRight[v]) {
+				lpOutput.set(v);
+			} else if (reachedLeft[v] == reachedRight[v]) {
+				half.set(v);
+			}
+		}
+	}
+
+	/**
+	 * Returns the LP bound rounded up, half the size of the
+	 * matching of the double cover.
+	 * @return bound the least whole number at or above the LP
+	 * optimum
+	 */
+	public int getBound() {
+		return (maximum.getSize() + 1) / 2;
+	}
+
+	/**
+	 * Returns the vertices at 1, which belong in the cover.
+	 * @return lpOutput the forced cover vertices
+	 */
+	public BitSet getLpOutput() {
+		return lpOutput;
+	}
+
+	/**
+	 * Builds the graph left on the vertices at 1/2, keeping the
+	 * numbers of the vertices and the order of the edges. Every
+	 * other edge has a vertex at 1.
+	 * @return kernel the edges between vertices at 1/2
+	 */
+	public Graph getKernel() {
+		GraphBuilder builder = new GraphBuilder(Math.max(graph.getEdgeCount(), 1));
+		int v1;
+		int v2;
+		for (int e = 0; e < graph.getEdgeCount(); e++) {
+			v1 = graph.getV1(e);
+			v2 = graph.getV2(e);
+			if (half.get(v1) && half.get(v2)) {
+				builder.addEdge(v1, v2);
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Prints the vertices at 1 and the edges between vertices at
+	 * 1/2, by the ids the vertices were read with.
+	 * @param c an output for the vertices at 1
+	 * @param r an output for the graph left
+	 */
+	public void removeFixed(PrintStream c, PrintStream r) {
+		IntWriter fixed = new IntWriter(c);
+		fixed.writeSet(lpOutput, graph);
+		fixed.flush();
+
+		IntWriter reduc = new IntWriter(r);
+		int v1;
+		int v2;
+		for (int e = 0; e < graph.getEdgeCount(); e++) {
+			v1 = graph.getV1(e);
+			v2 = graph.getV2(e);
+			if (half.get(v1) && half.get(v2)) {
+				reduc.writeEdge(graph.getId(v1), graph.getId(v2));
+			}
+		}
+		reduc.flush();
+	}
+}
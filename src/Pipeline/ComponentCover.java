@@ -0,0 +1,251 @@
+package Pipeline;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import Clique.VertexCoverSolver;
+import Clique.VertexCoverVerification;
+import Vertex.Components;
+import Vertex.Graph;
+import Vertex.GraphBuilder;
+import Vertex.GraphLoader;
+import Vertex.IntWriter;
+import Vertex.LowerBound;
+import Vertex.Metrics;
+import Vertex.VertexCoverApproximation;
+
+/**
+ * ComponentCover is a class that covers a graph one connected
+ * component at a time. Components of up to EXACT_SIZE vertices
+ * are covered exactly with the VertexCoverSolver, the rest with
+ * the chosen approximation, all on a pool of threads, and the
+ * covers are merged and checked against every edge. Components
+ * are handed out largest first, so the giant component does not
+ * start last.
+ *
+ * Option 1 matches each component in input order, which gives
+ * the same edges as matching the whole graph, so only the small
+ * components, covered exactly, can change the cover.
+ *
+ * @author Siddhartha
+ *
+ */
+public class ComponentCover {
+
+	static final int EXACT_SIZE = 32;
+	static final int BATCH_SIZE = 1024;
+
+	Graph graph;
+	Components components;
+	BitSet cover;
+	int exact = 0;
+	Metrics metrics = new Metrics("ComponentCover");
+
+	/**
+	 * Main method that checks for the arguments and starts the
+	 * cover.
+	 * @param args array of command line inputs
+	 */
+	public static void main(String[] args) {
+		ComponentCover cc = new ComponentCover();
+		if (args.length != 2 && args.length != 3) {
+			System.out.println("Usage: java ComponentCover <filename> [0|1] [threads]");
+		} else {
+			int threads = args.length == 3 ? Integer.parseInt(args[2])
+					: Runtime.getRuntime().availableProcessors();
+			cc.startUI(args[0], args[1], threads);
+		}
+		cc.metrics.report(System.out);
+	}
+
+	/**
+	 * Runs through the methods to write the cover to file
+	 *
+	 * @param file the input file
+	 * @param option 0 for algorithm2, 1 for the matching
+	 * @param threads the number of threads to cover with
+	 */
+	public void startUI(String file, String option, int threads) {
+		if (!option.equals("0") && !option.equals("1")) {
+			System.out.println("Usage: java ComponentCover <filename> [0|1] [threads]");
+			return;
+		}
+		metrics.begin("processInput");
+		try {
+			graph = GraphLoader.load(file);
+		} catch (IOException e) {
+			System.out.println(e.getMessage());
+			graph = new GraphBuilder().build();
+		}
+		metrics.count("edges", graph.getEdgeCount());
+		metrics.begin("split");
+		components = new Components(graph);
+		metrics.count("components", components.getCount());
+		metrics.begin("cover");
+		coverComponents(option, threads);
+		metrics.end();
+		metrics.count("exact", exact);
+		metrics.count("cover", cover.cardinality());
+		metrics.begin("verify");
+		if (!verify()) {
+			throw new IllegalStateException("Merged cover misses an edge");
+		}
+		metrics.begin("finalPrint");
+		PrintStream output = getOutputPrintStream();
+		finalPrint(output);
+		output.close();
+		metrics.end();
+	}
+
+	/**
+	 * Initializes an output file and returns it.
+	 *
+	 * @return output the output file to write to.
+	 */
+	public PrintStream getOutputPrintStream() {
+		PrintStream output = null;
+		String name = "componentOutput.txt";
+
+		try {
+			output = new PrintStream(new BufferedOutputStream(
+					new FileOutputStream(new File(name)), 1 << 16));
+		} catch (FileNotFoundException e) {
+			System.out.println(e.getMessage());
+		}
+		return output;
+	}
+
+	/**
+	 * Covers every component on a pool of threads and merges the
+	 * covers. Each large component is a task of its own; the
+	 * small ones are solved in batches.
+	 *
+	 * @param option 0 for algorithm2, 1 for the matching
+	 * @param threads the number of threads
+	 */
+	public void coverComponents(final String option, int threads) {
+		int count = components.getCount();
+		Integer[] order = new Integer[count];
+		for (int c = 0; c < count; c++) {
+			order[c] = c;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			public int compare(Integer a, Integer b) {
+				return Integer.compare(components.getVertexCount(b), components.getVertexCount(a));
+			}
+		});
+
+		cover = new BitSet(graph.getSize());
+		exact = 0;
+		ExecutorService pool = Executors.newFixedThreadPool(threads);
+		ArrayList<Future<BitSet>> covers = new ArrayList<Future<BitSet>>();
+		try {
+			int i = 0;
+			while (i < count && components.getVertexCount(order[i]) > EXACT_SIZE) {
+				final int c = order[i++];
+				covers.add(pool.submit(new Callable<BitSet>() {
+					public BitSet call() {
+						return approximate(c, option);
+					}
+				}));
+			}
+			exact = count - i;
+			while (i < count) {
+				final int[] batch = new int[Math.min(BATCH_SIZE, count - i)];
+				for (int j = 0; j < batch.length; j++) {
+					batch[j] = order[i++];
+				}
+				covers.add(pool.submit(new Callable<BitSet>() {
+					public BitSet call() {
+						return solve(batch);
+					}
+				}));
+			}
+			for (int j = 0; j < covers.size(); j++) {
+				cover.or(covers.get(j).get());
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		} catch (ExecutionException e) {
+			throw new IllegalStateException(e.getCause());
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	/**
+	 * Covers a component with the chosen approximation.
+	 * @return cover the cover, by vertex of the graph
+	 */
+	BitSet approximate(int c, String option) {
+		VertexCoverApproximation vCover = new VertexCoverApproximation();
+		vCover.processGraph(components.getGraph(c));
+		if (option.equals("0")) {
+			vCover.algorithm2();
+		} else {
+			vCover.matching();
+		}
+		BitSet output = vCover.getOutput();
+		BitSet part = new BitSet();
+		for (int v = output.nextSetBit(0); v >= 0; v = output.nextSetBit(v + 1)) {
+			part.set(components.getVertex(c, v));
+		}
+		return part;
+	}
+
+	/**
+	 * Covers small components exactly, trying each size from
+	 * the matching bound up.
+	 * @return cover the covers, by vertex of the graph
+	 */
+	BitSet solve(int[] batch) {
+		VertexCoverSolver solver = new VertexCoverSolver();
+		BitSet part = new BitSet();
+		for (int j = 0; j < batch.length; j++) {
+			Graph g = components.getGraph(batch[j]);
+			int k = LowerBound.matching(g);
+			BitSet local = solver.solve(g, k);
+			while (local == null) {
+				local = solver.solve(g, ++k);
+			}
+			for (int v = local.nextSetBit(0); v >= 0; v = local.nextSetBit(v + 1)) {
+				part.set(components.getVertex(batch[j], v));
+			}
+		}
+		return part;
+	}
+
+	/**
+	 * Checks the merged cover against the whole graph.
+	 * @return true if every edge is covered
+	 */
+	public boolean verify() {
+		VertexCoverVerification ver = new VertexCoverVerification();
+		ver.processGraph(graph);
+		return ver.verifyAnswer(cover);
+	}
+
+	/**
+	 * Prints the cover to a file, one vertex id per line.
+	 * @param o PrintStream prints to file.
+	 */
+	public void finalPrint(PrintStream o) {
+		IntWriter writer = new IntWriter(o);
+		writer.writeSet(cover, graph);
+		writer.flush();
+	}
+}
@@ -0,0 +1,193 @@
+package Pipeline;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.util.BitSet;
+
+import Clique.VertexCoverVerification;
+import Crown.CrownReduction;
+import Crown.LPReduction;
+import Vertex.Graph;
+import Vertex.IntWriter;
+import Vertex.GraphLoader;
+import Vertex.Metrics;
+import Vertex.VertexCoverApproximation;
+
+/**
+ * VertexCoverPipeline is a class that runs the whole workflow
+ * in one process on a graph parsed once: crowns are removed
+ * until none is left, the chosen approximation covers the
+ * kernel, the forced crown vertices are merged in, and the
+ * result can be verified against the original graph. The
+ * graphs are handed from step to step in memory, with no
+ * intermediate files. With -Dvc.reduction=lp the LPReduction
+ * takes the place of the crowns.
+ *
+ * @author Siddhartha
+ *
+ */
+public class VertexCoverPipeline {
+
+	static final String REDUCTION = "vc.reduction";
+
+	Graph graph;
+	Graph kernel;
+	BitSet forced;
+	BitSet cover;
+	Metrics metrics = new Metrics("VertexCoverPipeline");
+
+	/**
+	 * Main method that checks for the arguments and starts the
+	 * pipeline.
+	 * @param args array of command line inputs
+	 */
+	public static void main(String[] args) {
+		VertexCoverPipeline pipeline = new VertexCoverPipeline();
+		if (args.length != 2 && !(args.length == 3 && args[2].equals("verify"))) {
+			System.out.println("Usage: java VertexCoverPipeline <filename> [0|1] [verify]");
+		} else {
+			pipeline.startUI(args[0], args[1], args.length == 3);
+		}
+		pipeline.metrics.report(System.out);
+	}
+
+	/**
+	 * Runs through the steps and writes the cover to file
+	 *
+	 * @param file the input file
+	 * @param option 0 for algorithm2, 1 for the matching
+	 * @param verify true to check the cover against the graph
+	 */
+	public void startUI(String file, String option, boolean verify) {
+		if (!option.equals("0") && !option.equals("1")) {
+			System.out.println("Usage: java VertexCoverPipeline <filename> [0|1] [verify]");
+			return;
+		}
+		metrics.begin("processInput");
+		try {
+			graph = GraphLoader.load(file);
+		} catch (IOException e) {
+			System.out.println(e.getMessage());
+			return;
+		}
+		metrics.count("edges", graph.getEdgeCount());
+		metrics.begin("reduce");
+		if (System.getProperty(REDUCTION, "crown").equals("lp")) {
+			reduceLP();
+		} else {
+			reduce();
+		}
+		metrics.begin("approximate");
+		approximate(option);
+		metrics.end();
+		metrics.count("forced", forced.cardinality());
+		metrics.count("kernelEdges", kernel.getEdgeCount());
+		metrics.count("cover", cover.cardinality());
+		System.out.println("Forced " + forced.cardinality() + ", kernel "
+				+ kernel.getVertexCount() + " vertices, " + kernel.getEdgeCount()
+				+ " edges, cover " + cover.cardinality());
+		if (verify) {
+			metrics.begin("verify");
+			boolean valid = verify();
+			metrics.end();
+			System.out.println(valid ? "yes" : "no");
+		}
+		metrics.begin("finalPrint");
+		PrintStream output = getOutputPrintStream();
+		finalPrint(output);
+		output.close();
+		metrics.end();
+	}
+
+	/**
+	 * Initializes an output file and returns it.
+	 *
+	 * @return output the output file to write to.
+	 */
+	public PrintStream getOutputPrintStream() {
+		PrintStream output = null;
+		String name = "pipelineOutput.txt";
+
+		try {
+			output = new PrintStream(new BufferedOutputStream(
+					new FileOutputStream(new File(name)), 1 << 16));
+		} catch (FileNotFoundException e) {
+			System.out.println(e.getMessage());
+		}
+		return output;
+	}
+
+	/**
+	 * Removes crowns from the graph until none is left, keeping
+	 * the forced vertices and the kernel.
+	 */
+	public void reduce() {
+		CrownReduction crown = new CrownReduction();
+		crown.processGraph(graph);
+		crown.findSubGraph();
+		crown.hopcroftMatching();
+		crown.obtainCrown();
+		while (crown.reduceGraph()) {
+			crown.hopcroftMatching();
+			crown.obtainCrown();
+		}
+		kernel = crown.getGraph();
+		forced = crown.getCrownOutput();
+	}
+
+	/**
+	 * Fixes the vertices the LP optimum puts at 1 and keeps the
+	 * graph on the vertices at 1/2 as the kernel.
+	 */
+	public void reduceLP() {
+		LPReduction lp = new LPReduction();
+		lp.processGraph(graph);
+		lp.lpMatching();
+		lp.obtainValues();
+		kernel = lp.getKernel();
+		forced = lp.getLpOutput();
+	}
+
+	/**
+	 * Covers the kernel with the chosen approximation and adds
+	 * the forced vertices.
+	 *
+	 * @param option 0 for algorithm2, 1 for the matching
+	 */
+	public void approximate(String option) {
+		VertexCoverApproximation vCover = new VertexCoverApproximation();
+		vCover.processGraph(kernel);
+		if (option.equals("0")) {
+			vCover.algorithm2();
+		} else {
+			vCover.matching();
+		}
+		cover = (BitSet) forced.clone();
+		cover.or(vCover.getOutput());
+	}
+
+	/**
+	 * Checks the cover against the original graph.
+	 * @return true if every edge is covered
+	 */
+	public boolean verify() {
+		VertexCoverVerification ver = new VertexCoverVerification();
+		ver.processGraph(graph);
+		return ver.verifyAnswer(cover);
+	}
+
+	/**
+	 * Prints the vertex cover list to a file, by the ids the
+	 * vertices were read with.
+	 * @param o PrintStream prints to file.
+	 */
+	public void finalPrint(PrintStream o) {
+		IntWriter writer = new IntWriter(o);
+		writer.writeSet(cover, graph);
+		writer.flush();
+	}
+}
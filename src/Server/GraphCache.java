@@ -0,0 +1,155 @@
+package Server;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import Vertex.Graph;
+import Vertex.GraphLoader;
+
+/**
+ * GraphCache keeps loaded graphs by file name so they are
+ * parsed once. When the graphs take more than the memory given,
+ * the ones used least recently are dropped. A graph asked for
+ * by several requests while it loads is loaded only once.
+ *
+ * @author Siddhartha
+ *
+ */
+public class GraphCache {
+
+	private long maxBytes;
+	private long bytes = 0;
+	private long hits = 0;
+	private long misses = 0;
+	private LinkedHashMap<String, FutureTask<Graph>> graphs =
+			new LinkedHashMap<String, FutureTask<Graph>>(16, 0.75f, true);
+	private HashMap<String, Long> sizes = new HashMap<String, Long>();
+
+	/**
+	 * Makes an empty cache.
+	 * @param maxBytes the memory the graphs may take
+	 */
+	public GraphCache(long maxBytes) {
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Returns a graph, loading it if it is not in the cache.
+	 *
+	 * @param name the name of the graph file
+	 * @return graph the loaded graph
+	 * @throws IOException if the file cannot be read
+	 */
+	public Graph get(String name) throws IOException {
+		final String key = Paths.get(name).toAbsolutePath().normalize().toString();
+		FutureTask<Graph> task;
+		boolean load = false;
+		synchronized (this) {
+			task = graphs.get(key);
+			if (task == null) {
+				task = new FutureTask<Graph>(new Callable<Graph>() {
+					public Graph call() throws IOException {
+						return GraphLoader.load(key);
+					}
+				});
+				graphs.put(key, task);
+				misses++;
+				load = true;
+			} else {
+				hits++;
+			}
+		}
+		if (load) {
+			task.run();
+		}
+		Graph graph;
+		try {
+			graph = task.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted loading " + name);
+		} catch (ExecutionException e) {
+			synchronized (this) {
+				if (graphs.get(key) == task) {
+					graphs.remove(key);
+				}
+			}
+			if (e.getCause() instanceof IOException) {
+				throw (IOException) e.getCause();
+			}
+			throw new IOException(e.getCause().getMessage());
+		}
+		if (load) {
+			synchronized (this) {
+				if (graphs.get(key) == task) {
+					long size = sizeOf(graph);
+					sizes.put(key, size);
+					bytes += size;
+					evict(key);
+				}
+			}
+		}
+		return graph;
+	}
+
+	/**
+	 * Drops a graph from the cache.
+	 * @param name the name of the graph file
+	 * @return true if it was in the cache
+	 */
+	public synchronized boolean remove(String name) {
+		String key = Paths.get(name).toAbsolutePath().normalize().toString();
+		if (graphs.remove(key) == null) {
+			return false;
+		}
+		Long size = sizes.remove(key);
+		if (size != null) {
+			bytes -= size;
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the graphs, memory and hits of the cache.
+	 * @return stats "graphs bytes hits misses"
+	 */
+	public synchronized String getStats() {
+		return graphs.size() + " " + bytes + " " + hits + " " + misses;
+	}
+
+	/**
+	 * Returns the memory a graph takes: its CSR rows, its edge
+	 * list and its ids.
+	 * @param graph the graph
+	 * @return bytes the size of its arrays
+	 */
+	public static long sizeOf(Graph graph) {
+		long ids = graph.getIds() == null ? 0 : 4L * graph.getSize();
+		return 4L * (graph.getSize() + 1) + 16L * graph.getEdgeCount() + ids + 64;
+	}
+
+	/**
+	 * Drops the graphs used least recently, other than the one
+	 * just loaded, until the rest fit.
+	 */
+	private void evict(String keep) {
+		Iterator<Map.Entry<String, FutureTask<Graph>>> itr = graphs.entrySet().iterator();
+		while (bytes > maxBytes && itr.hasNext()) {
+			Map.Entry<String, FutureTask<Graph>> entry = itr.next();
+			Long size = sizes.get(entry.getKey());
+			if (entry.getKey().equals(keep) || size == null) {
+				continue;
+			}
+			itr.remove();
+			sizes.remove(entry.getKey());
+			bytes -= size;
+		}
+	}
+}
@@ -0,0 +1,311 @@
+package Server;
+
+import java.io.BufferedReader;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.BitSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import Clique.VertexCoverVerification;
+import Crown.CrownReduction;
+import Vertex.Graph;
+import Vertex.VertexCoverApproximation;
+
+/**
+ * VertexCoverServer stays running and answers requests on
+ * graphs it keeps loaded, so a graph is parsed once and the
+ * JVM is warmed up once. Requests are read one per line from
+ * standard input, or from every connection to a port on the
+ * local machine, and run at the same time on a pool of
+ * threads. The answers are written one per line in the order
+ * of the requests; since the requests run side by side, a
+ * request does not wait for the ones before it to finish.
+ *
+ *   cover &lt;graph&gt; [0|1|2|3] [millis]   size and vertices of a cover
+ *   verify &lt;graph&gt; &lt;k&gt; &lt;vertices&gt;    yes or no
+ *   crown &lt;graph&gt;                    size and vertices forced by crowns
+ *   load &lt;graph&gt;                     vertices and edges
+ *   evict &lt;graph&gt;                    yes or no
+ *   stats                            graphs, bytes, hits and misses
+ *   quit                             ends the input
+ *
+ * Vertices in requests and answers are the ids of the graph
+ * file. A request that fails is answered with "error" and a
+ * message.
+ *
+ * @author Siddhartha
+ *
+ */
+public class VertexCoverServer {
+
+	static final String USAGE = "Usage: java VertexCoverServer [port|-] [cache MB] [threads]";
+
+	GraphCache cache;
+	ExecutorService pool;
+
+	/**
+	 * Main method that checks for the arguments and starts the
+	 * server.
+	 * @param args array of command line inputs
+	 */
+	public static void main(String[] args) {
+		if (args.length > 3) {
+			System.out.println(USAGE);
+			return;
+		}
+		String port = args.length > 0 ? args[0] : "-";
+		long cacheBytes = args.length > 1 ? Long.parseLong(args[1]) << 20
+				: Runtime.getRuntime().maxMemory() / 2;
+		int threads = args.length > 2 ? Integer.parseInt(args[2])
+				: Runtime.getRuntime().availableProcessors();
+		VertexCoverServer server = new VertexCoverServer(cacheBytes, threads);
+		server.startUI(port);
+	}
+
+	/**
+	 * Makes a server with an empty cache.
+	 * @param cacheBytes the memory the cached graphs may take
+	 * @param threads the number of requests run at once
+	 */
+	public VertexCoverServer(long cacheBytes, int threads) {
+		cache = new GraphCache(cacheBytes);
+		pool = Executors.newFixedThreadPool(threads);
+	}
+
+	/**
+	 * Serves standard input, or every connection to a port on
+	 * the local machine.
+	 *
+	 * @param port the port to listen on, or "-" for standard input
+	 */
+	public void startUI(String port) {
+		try {
+			if (port.equals("-")) {
+				serve(new BufferedReader(new InputStreamReader(System.in)),
+						new PrintStream(new BufferedOutputStream(System.out, 1 << 16)));
+			} else {
+				listen(Integer.parseInt(port));
+			}
+		} catch (IOException e) {
+			System.out.println(e.getMessage());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * Accepts connections on the loopback address, each served
+	 * by its own thread.
+	 * @param port the port to listen on
+	 * @throws IOException if the port cannot be opened
+	 */
+	public void listen(int port) throws IOException {
+		ServerSocket server = new ServerSocket(port, 50, InetAddress.getLoopbackAddress());
+		try {
+			while (true) {
+				final Socket socket = server.accept();
+				Thread thread = new Thread(new Runnable() {
+					public void run() {
+						try {
+							serve(new BufferedReader(new InputStreamReader(socket.getInputStream())),
+									new PrintStream(new BufferedOutputStream(socket.getOutputStream(), 1 << 16)));
+						} catch (IOException e) {
+							System.out.println(e.getMessage());
+						} finally {
+							try {
+								socket.close();
+							} catch (IOException e) {
+								System.out.println(e.getMessage());
+							}
+						}
+					}
+				});
+				thread.setDaemon(true);
+				thread.start();
+			}
+		} finally {
+			server.close();
+		}
+	}
+
+	/**
+	 * Reads requests until the input ends or says quit, running
+	 * them on the pool. A writer thread prints the answers in
+	 * the order of the requests as they come in.
+	 *
+	 * @param in the requests
+	 * @param out the answers
+	 * @throws IOException if the requests cannot be read
+	 */
+	public void serve(BufferedReader in, final PrintStream out) throws IOException {
+		final LinkedBlockingQueue<Future<String>> answers = new LinkedBlockingQueue<Future<String>>();
+		final FutureTask<String> end = new FutureTask<String>(new Callable<String>() {
+			public String call() {
+				return null;
+			}
+		});
+		Thread writer = new Thread(new Runnable() {
+			public void run() {
+				printAnswers(answers, end, out);
+			}
+		});
+		writer.start();
+		try {
+			String line;
+			while ((line = in.readLine()) != null && !line.trim().equals("quit")) {
+				if (line.trim().isEmpty()) {
+					continue;
+				}
+				final String request = line;
+				answers.add(pool.submit(new Callable<String>() {
+					public String call() {
+						return answer(request);
+					}
+				}));
+			}
+		} finally {
+			answers.add(end);
+			try {
+				writer.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Prints each answer once it is in, flushing whenever no
+	 * other answer is ready.
+	 */
+	private void printAnswers(LinkedBlockingQueue<Future<String>> answers, Future<String> end,
+			PrintStream out) {
+		try {
+			while (true) {
+				Future<String> answer = answers.peek();
+				if (answer == null || !answer.isDone()) {
+					out.flush();
+					answer = answers.take();
+				} else {
+					answers.poll();
+				}
+				if (answer == end) {
+					break;
+				}
+				try {
+					out.println(answer.get());
+				} catch (ExecutionException e) {
+					out.println("error " + e.getCause());
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		out.flush();
+	}
+
+	/**
+	 * Runs one request.
+	 * @param line the request
+	 * @return answer the line to send back
+	 */
+	public String answer(String line) {
+		String[] args = line.trim().split("\\s+", 4);
+		try {
+			if (args[0].equals("cover") && args.length >= 2) {
+				String option = args.length > 2 ? args[2] : "1";
+				long millis = args.length > 3 ? Long.parseLong(args[3].trim()) : 0;
+				return cover(cache.get(args[1]), option, millis);
+			} else if (args[0].equals("verify") && args.length >= 3) {
+				return verify(cache.get(args[1]), Integer.parseInt(args[2]),
+						args.length > 3 ? args[3] : "");
+			} else if (args[0].equals("crown") && args.length == 2) {
+				return crown(cache.get(args[1]));
+			} else if (args[0].equals("load") && args.length == 2) {
+				Graph graph = cache.get(args[1]);
+				return graph.getVertexCount() + " " + graph.getEdgeCount();
+			} else if (args[0].equals("evict") && args.length == 2) {
+				return cache.remove(args[1]) ? "yes" : "no";
+			} else if (args[0].equals("stats") && args.length == 1) {
+				return cache.getStats();
+			}
+			return "error unknown request " + line.trim();
+		} catch (IOException e) {
+			return "error " + e.getMessage();
+		} catch (RuntimeException e) {
+			return "error " + e;
+		}
+	}
+
+	/**
+	 * Covers a graph with one of the approximations, shrunk by a
+	 * local search if given time.
+	 */
+	String cover(Graph graph, String option, long millis) {
+		VertexCoverApproximation vCover = new VertexCoverApproximation();
+		vCover.processGraph(graph);
+		// requests already share the pool, so each runs on one thread
+		int threads = 1;
+		if (option.equals("0")) {
+			vCover.algorithm2();
+		} else if (option.equals("1")) {
+			vCover.matching();
+		} else if (option.equals("2")) {
+			vCover.parallelMatching(threads);
+		} else if (option.equals("3")) {
+			vCover.parallelAlgorithm2(threads);
+		} else {
+			return "error unknown option " + option;
+		}
+		if (millis > 0) {
+			vCover.improve(millis);
+		}
+		BitSet output = vCover.getOutput();
+		StringBuilder answer = new StringBuilder().append(output.cardinality());
+		for (int v = output.nextSetBit(0); v >= 0; v = output.nextSetBit(v + 1)) {
+			answer.append(' ').append(graph.getId(v));
+		}
+		return answer.toString();
+	}
+
+	/**
+	 * Checks a candidate line against a graph.
+	 */
+	String verify(Graph graph, int k, String candidate) {
+		VertexCoverVerification ver = new VertexCoverVerification();
+		ver.processGraph(graph);
+		return ver.verify(candidate, k);
+	}
+
+	/**
+	 * Removes crowns from a graph until none is left, and lists
+	 * the vertices they put in the cover.
+	 */
+	String crown(Graph graph) {
+		CrownReduction crown = new CrownReduction();
+		crown.processGraph(graph);
+		crown.findSubGraph();
+		crown.hopcroftMatching();
+		crown.obtainCrown();
+		while (crown.reduceGraph()) {
+			crown.hopcroftMatching();
+			crown.obtainCrown();
+		}
+		BitSet forced = crown.getCrownOutput();
+		StringBuilder answer = new StringBuilder().append(forced.cardinality());
+		for (int v = forced.nextSetBit(0); v >= 0; v = forced.nextSetBit(v + 1)) {
+			answer.append(' ').append(graph.getId(v));
+		}
+		return answer.toString();
+	}
+}
@@ -0,0 +1,171 @@
+package Vertex;
+
+import java.util.Arrays;
+
+/**
+ * BucketQueue is a max priority queue of vertices keyed by
+ * degree. Every degree has its own bucket, and each bucket is
+ * a small min-heap of vertex ids, so the queue always hands
+ * out the lowest vertex among those with the highest degree.
+ * A decrement moves a vertex down one bucket in O(log n).
+ *
+ * @author Siddhartha
+ *
+ */
+public class BucketQueue {
+
+	private int[] key;
+	private int[] pos;
+	private int[][] buckets;
+	private int[] bucketSize;
+	private int top;
+
+	/**
+	 * Builds the queue from the starting degree of every
+	 * vertex. Vertices with degree 0 are never handed out.
+	 * @param degree the degree of each vertex, which is copied
+	 */
+	public BucketQueue(int[] degree) {
+		int max = 0;
+		key = Arrays.copyOf(degree, degree.length);
+		pos = new int[degree.length];
+		for (int i = 0; i < key.length; i++) {
+			if (max < key[i]) {
+				max = key[i];
+			}
+		}
+		int[] count = new int[max + 1];
+		for (int i = 0; i < key.length; i++) {
+			count[key[i]]++;
+		}
+		buckets = new int[max + 1][];
+		bucketSize = new int[max + 1];
+		for (int d = 1; d <= max; d++) {
+			buckets[d] = new int[Math.max(count[d], 1)];
+		}
+		// ids are added in ascending order, which is already a heap
+		for (int i = 0; i < key.length; i++) {
+			if (key[i] > 0) {
+				pos[i] = bucketSize[key[i]];
+				buckets[key[i]][bucketSize[key[i]]++] = i;
+			}
+		}
+		top = max;
+	}
+
+	/**
+	 * Returns the current key of a vertex
+	 * @param v the vertex
+	 * @return the degree the queue holds for v
+	 */
+	public int key(int v) {
+		return key[v];
+	}
+
+	/**
+	 * Removes and returns the lowest vertex with the highest
+	 * degree.
+	 * @return v the vertex, or -1 if every key is 0
+	 */
+	public int pollMax() {
+		while (top > 0 && bucketSize[top] == 0) {
+			top--;
+		}
+		if (top == 0) {
+			return -1;
+		}
+		int v = buckets[top][0];
+		remove(v);
+		return v;
+	}
+
+	/**
+	 * Lowers the key of a vertex by one
+	 * @param v the vertex
+	 */
+	public void decrement(int v) {
+		int d = key[v];
+		if (d == 0) {
+			return;
+		}
+		delete(v);
+		key[v] = d - 1;
+		if (d > 1) {
+			insert(v);
+		}
+	}
+
+	/**
+	 * Takes a vertex out of the queue for good
+	 * @param v the vertex
+	 */
+	public void remove(int v) {
+		if (key[v] > 0) {
+			delete(v);
+			key[v] = 0;
+		}
+	}
+
+	private void insert(int v) {
+		int d = key[v];
+		if (bucketSize[d] == buckets[d].length) {
+			buckets[d] = Arrays.copyOf(buckets[d], 2 * bucketSize[d]);
+		}
+		int p = bucketSize[d]++;
+		buckets[d][p] = v;
+		pos[v] = p;
+		siftUp(d, p);
+	}
+
+	private void delete(int v) {
+		int d = key[v];
+		int[] heap = buckets[d];
+		int p = pos[v];
+		int last = heap[--bucketSize[d]];
+		if (last != v) {
+			heap[p] = last;
+			pos[last] = p;
+			siftDown(d, p);
+			siftUp(d, pos[last]);
+		}
+	}
+
+	private void siftUp(int d, int p) {
+		int[] heap = buckets[d];
+		int v = heap[p];
+		while (p > 0) {
+			int parent = (p - 1) >>> 1;
+			if (heap[parent] < v) {
+				break;
+			}
+			heap[p] = heap[parent];
+			pos[heap[p]] = p;
+			p = parent;
+		}
+		heap[p] = v;
+		pos[v] = p;
+	}
+
+	private void siftDown(int d, int p) {
+		int[] heap = buckets[d];
+		int n = bucketSize[d];
+		int v = heap[p];
+		while (true) {
+			int child = 2 * p + 1;
+			if (child >= n) {
+				break;
+			}
+			if (child + 1 < n && heap[child + 1] < heap[child]) {
+				child++;
+			}
+			if (v < heap[child]) {
+				break;
+			}
+			heap[p] = heap[child];
+			pos[heap[p]] = p;
+			p = child;
+		}
+		heap[p] = v;
+		pos[v] = p;
+	}
+}
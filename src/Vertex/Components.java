@@ -0,0 +1,172 @@
+package Vertex;
+
+/**
+ * Components splits a graph into its connected components with
+ * a union-find over the edges. Components are numbered by their
+ * lowest vertex, and vertices without edges belong to none.
+ * Each component can be built as a graph of its own, with its
+ * vertices numbered 0..n-1 in increasing order and its edges in
+ * input order, so a cover of it maps back through getVertices.
+ *
+ * @author Siddhartha
+ *
+ */
+public class Components {
+
+	private Graph graph;
+	private int count = 0;
+	private int[] component;
+	private int[] local;
+	private int[] vertexStart;
+	private int[] vertices;
+	private int[] edgeStart;
+	private int[] edges;
+
+	/**
+	 * Finds the components of a graph.
+	 * @param graph the graph to split
+	 */
+	public Components(Graph graph) {
+		this.graph = graph;
+		int size = graph.getSize();
+		int[] parent = new int[size];
+		int[] rank = new int[size];
+		for (int v = 0; v < size; v++) {
+			parent[v] = v;
+		}
+		for (int e = 0; e < graph.getEdgeCount(); e++) {
+			int a = find(parent, graph.getV1(e));
+			int b = find(parent, graph.getV2(e));
+			if (a != b) {
+				if (rank[a] < rank[b]) {
+					int n = a;
+					a = b;
+					b = n;
+				}
+				parent[b] = a;
+				if (rank[a] == rank[b]) {
+					rank[a]++;
+				}
+			}
+		}
+
+		component = new int[size];
+		int[] label = rank;
+		for (int v = 0; v < size; v++) {
+			label[v] = -1;
+		}
+		for (int v = 0; v < size; v++) {
+			component[v] = -1;
+			if (graph.degree(v) > 0) {
+				int root = find(parent, v);
+				if (label[root] < 0) {
+					label[root] = count++;
+				}
+				component[v] = label[root];
+			}
+		}
+
+		vertexStart = new int[count + 1];
+		edgeStart = new int[count + 1];
+		for (int v = 0; v < size; v++) {
+			if (component[v] >= 0) {
+				vertexStart[component[v] + 1]++;
+			}
+		}
+		for (int e = 0; e < graph.getEdgeCount(); e++) {
+			edgeStart[component[graph.getV1(e)] + 1]++;
+		}
+		for (int c = 0; c < count; c++) {
+			vertexStart[c + 1] += vertexStart[c];
+			edgeStart[c + 1] += edgeStart[c];
+		}
+		int[] next = new int[count];
+		vertices = new int[vertexStart[count]];
+		local = new int[size];
+		for (int v = 0; v < size; v++) {
+			int c = component[v];
+			if (c >= 0) {
+				local[v] = next[c];
+				vertices[vertexStart[c] + next[c]++] = v;
+			}
+		}
+		for (int c = 0; c < count; c++) {
+			next[c] = edgeStart[c];
+		}
+		edges = new int[graph.getEdgeCount()];
+		for (int e = 0; e < graph.getEdgeCount(); e++) {
+			edges[next[component[graph.getV1(e)]]++] = e;
+		}
+	}
+
+	/**
+	 * Returns the number of components
+	 * @return count the number of components
+	 */
+	public int getCount() {
+		return count;
+	}
+
+	/**
+	 * Returns the component of a vertex
+	 * @param v the vertex
+	 * @return c the component, or -1 for a vertex without edges
+	 */
+	public int getComponent(int v) {
+		return component[v];
+	}
+
+	/**
+	 * Returns the number of vertices in a component
+	 * @param c the component
+	 * @return n the number of vertices
+	 */
+	public int getVertexCount(int c) {
+		return vertexStart[c + 1] - vertexStart[c];
+	}
+
+	/**
+	 * Returns the number of edges in a component
+	 * @param c the component
+	 * @return m the number of edges
+	 */
+	public int getEdgeCount(int c) {
+		return edgeStart[c + 1] - edgeStart[c];
+	}
+
+	/**
+	 * Returns the vertex of the graph behind a number of a
+	 * component graph.
+	 * @param c the component
+	 * @param i the number in the component graph
+	 * @return v the vertex of the graph
+	 */
+	public int getVertex(int c, int i) {
+		return vertices[vertexStart[c] + i];
+	}
+
+	/**
+	 * Builds a component as a graph of its own.
+	 * @param c the component
+	 * @return graph the component with its vertices numbered
+	 * from 0
+	 */
+	public Graph getGraph(int c) {
+		GraphBuilder builder = new GraphBuilder(Math.max(getEdgeCount(c), 1));
+		for (int i = edgeStart[c]; i < edgeStart[c + 1]; i++) {
+			builder.addEdge(local[graph.getV1(edges[i])], local[graph.getV2(edges[i])]);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Finds the root of a vertex, halving the path on the way.
+	 */
+	private static int find(int[] parent, int v) {
+		while (parent[v] != v) {
+			parent[v] = parent[parent[v]];
+			v = parent[v];
+		}
+		return v;
+	}
+}
@@ -0,0 +1,342 @@
+package Vertex;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.InputMismatchException;
+
+/**
+ * DynamicCover keeps the cover of a maximal matching while
+ * edges are added and deleted. A new edge whose vertices are
+ * both free is matched. Deleting a matched edge frees its two
+ * vertices, and each looks through its own edges for a free
+ * neighbor to match again. No other edge can be left with two
+ * free vertices, so the matching stays maximal and the cover
+ * stays within twice the optimum, at a cost of one pass over
+ * two rows per update instead of one over every edge.
+ *
+ * Updates are read one per line: "+ v1 v2" adds an edge,
+ * "- v1 v2" deletes one and "?" prints the size of the cover.
+ * Updates name vertices by id, and an id not seen before is
+ * given the next number through an IdMap, so the arrays grow
+ * with the vertices and not with the largest id.
+ *
+ * @author Siddhartha
+ *
+ */
+public class DynamicCover {
+
+	static final int FREE = -1;
+
+	int size = 0;
+	int[][] adj = new int[0][];
+	int[] adjLength = new int[0];
+	int[] mate = new int[0];
+	IdMap ids = new IdMap(1024);
+	int coverSize = 0;
+	long edges = 0;
+	long missing = 0;
+	Metrics metrics = new Metrics("DynamicCover");
+
+	/**
+	 * Main method that checks for two arguments and applies the
+	 * updates to the graph.
+	 * @param args array of command line inputs
+	 */
+	public static void main(String[] args) {
+		DynamicCover cover = new DynamicCover();
+		if (args.length != 2) {
+			System.out.println("Usage: java DynamicCover <graph> <updates>");
+		} else {
+			cover.startUI(args[0], args[1]);
+		}
+		cover.metrics.report(System.out);
+	}
+
+	/**
+	 * Runs through the methods to write the final cover to file
+	 *
+	 * @param file the input graph
+	 * @param updates the update file, or "-" for standard input
+	 */
+	public void startUI(String file, String updates) {
+		metrics.begin("processInput");
+		Graph graph;
+		try {
+			graph = GraphLoader.load(file);
+		} catch (IOException e) {
+			System.out.println(e.getMessage());
+			graph = new GraphBuilder().build();
+		}
+		metrics.begin("insertGraph");
+		insertGraph(graph);
+		metrics.begin("update");
+		try {
+			BufferedReader reader = new BufferedReader(
+					Channels.newReader(GraphLoader.open(updates), "US-ASCII"), 1 << 16);
+			try {
+				metrics.count("updates", update(reader, System.out));
+			} finally {
+				if (!updates.equals(GraphLoader.STDIN)) {
+					reader.close();
+				}
+			}
+		} catch (IOException e) {
+			System.out.println(e.getMessage());
+		}
+		metrics.count("edges", edges);
+		metrics.count("missing", missing);
+		metrics.count("cover", coverSize);
+		metrics.begin("finalPrint");
+		PrintStream output = getOutputPrintStream();
+		finalPrint(output);
+		output.close();
+		metrics.end();
+	}
+
+	/**
+	 * Initializes an output file and returns it.
+	 *
+	 * @return output the output file to write to.
+	 */
+	public PrintStream getOutputPrintStream() {
+		PrintStream output = null;
+		String name = "dynamicOutput.txt";
+
+		try {
+			output = new PrintStream(new File(name));
+		} catch (FileNotFoundException e) {
+			System.out.println(e.getMessage());
+		}
+		return output;
+	}
+
+	/**
+	 * Adds every edge of a graph in input order, which matches
+	 * the same edges as VertexCoverApproximation option 1. The
+	 * vertices keep their numbers, and their ids are added to
+	 * the map so the updates can name them.
+	 * @param graph the graph to add
+	 */
+	public void insertGraph(Graph graph) {
+		for (int v = 0; v < graph.getSize(); v++) {
+			add(graph.getId(v));
+		}
+		grow(graph.getSize());
+		for (int v = 0; v < graph.getSize(); v++) {
+			if (adj[v] == null || adj[v].length < graph.degree(v)) {
+				adj[v] = new int[Math.max(graph.degree(v), 4)];
+			}
+		}
+		for (int e = 0; e < graph.getEdgeCount(); e++) {
+			insertEdge(graph.getV1(e), graph.getV2(e));
+		}
+	}
+
+	/**
+	 * Applies update lines until the input ends.
+	 *
+	 * @param reader the update lines
+	 * @param o prints the answers to "?" lines
+	 * @return count the number of updates applied
+	 * @throws IOException if the updates cannot be read
+	 */
+	public long update(BufferedReader reader, PrintStream o) throws IOException {
+		long count = 0;
+		int lineNumber = 0;
+		String line;
+		while ((line = reader.readLine()) != null) {
+			lineNumber++;
+			String[] tokens = line.trim().split("\\s+");
+			if (tokens[0].isEmpty()) {
+				continue;
+			}
+			if (tokens[0].equals("?") && tokens.length == 1) {
+				o.println(coverSize);
+				continue;
+			}
+			if (tokens.length != 3 || !(tokens[0].equals("+") || tokens[0].equals("-"))) {
+				throw new InputMismatchException("Bad update on line " + lineNumber);
+			}
+			int v1;
+			int v2;
+			try {
+				v1 = Integer.parseInt(tokens[1]);
+				v2 = Integer.parseInt(tokens[2]);
+			} catch (NumberFormatException e) {
+				throw new InputMismatchException("Bad vertex on line " + lineNumber);
+			}
+			if (tokens[0].equals("+")) {
+				insertEdge(add(v1), add(v2));
+			} else if (ids.get(v1) < 0 || ids.get(v2) < 0 || !deleteEdge(ids.get(v1), ids.get(v2))) {
+				missing++;
+			}
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Adds an edge, matching it if both vertices are free.
+	 * @param v1 vertex 1
+	 * @param v2 vertex 2
+	 */
+	public void insertEdge(int v1, int v2) {
+		grow(Math.max(v1, v2) + 1);
+		append(v1, v2);
+		if (v1 != v2) {
+			append(v2, v1);
+		}
+		edges++;
+		if (mate[v1] == FREE && mate[v2] == FREE) {
+			match(v1, v2);
+		}
+	}
+
+	/**
+	 * Deletes an edge. If it was matched, its vertices look for
+	 * free neighbors to match again.
+	 * @param v1 vertex 1
+	 * @param v2 vertex 2
+	 * @return true if the edge was in the graph
+	 */
+	public boolean deleteEdge(int v1, int v2) {
+		if (Math.max(v1, v2) >= size || !delete(v1, v2)) {
+			return false;
+		}
+		if (v1 != v2) {
+			delete(v2, v1);
+		}
+		edges--;
+		if (mate[v1] == v2) {
+			mate[v1] = FREE;
+			mate[v2] = FREE;
+			coverSize -= v1 == v2 ? 1 : 2;
+			rematch(v1);
+			if (v1 != v2) {
+				rematch(v2);
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Checks if a vertex is in the cover.
+	 * @param v the vertex
+	 * @return true if v is matched
+	 */
+	public boolean inCover(int v) {
+		return v < size && mate[v] != FREE;
+	}
+
+	/**
+	 * Returns the size of the cover
+	 * @return coverSize the number of matched vertices
+	 */
+	public int getCoverSize() {
+		return coverSize;
+	}
+
+	/**
+	 * Returns the number of edges in the graph
+	 * @return edges the number of edges
+	 */
+	public long getEdgeCount() {
+		return edges;
+	}
+
+	/**
+	 * Prints the cover to a file, one vertex id per line in
+	 * increasing order.
+	 * @param o PrintStream prints to file.
+	 */
+	public void finalPrint(PrintStream o) {
+		int[] cover = new int[coverSize];
+		int n = 0;
+		for (int v = 0; v < size; v++) {
+			if (mate[v] != FREE) {
+				cover[n++] = ids.getId(v);
+			}
+		}
+		Arrays.sort(cover, 0, n);
+		IntWriter writer = new IntWriter(o);
+		for (int i = 0; i < n; i++) {
+			writer.writeLine(cover[i]);
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Returns the vertex of an id, numbering it if it is new.
+	 */
+	private int add(int id) {
+		int v = ids.add(id);
+		grow(v + 1);
+		return v;
+	}
+
+	/**
+	 * Matches a free vertex to its first free neighbor. It may
+	 * have been matched again already by its old partner, when
+	 * the two share another copy of the deleted edge.
+	 */
+	private void rematch(int v) {
+		if (mate[v] != FREE) {
+			return;
+		}
+		for (int p = 0; p < adjLength[v]; p++) {
+			if (mate[adj[v][p]] == FREE) {
+				match(v, adj[v][p]);
+				return;
+			}
+		}
+	}
+
+	private void match(int v1, int v2) {
+		mate[v1] = v2;
+		mate[v2] = v1;
+		coverSize += v1 == v2 ? 1 : 2;
+	}
+
+	private void append(int v, int u) {
+		if (adj[v] == null) {
+			adj[v] = new int[4];
+		} else if (adjLength[v] == adj[v].length) {
+			adj[v] = Arrays.copyOf(adj[v], 2 * adjLength[v]);
+		}
+		adj[v][adjLength[v]++] = u;
+	}
+
+	/**
+	 * Removes one copy of u from the row of v by moving the last
+	 * entry into its place.
+	 */
+	private boolean delete(int v, int u) {
+		for (int p = 0; p < adjLength[v]; p++) {
+			if (adj[v][p] == u) {
+				adj[v][p] = adj[v][--adjLength[v]];
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void grow(int n) {
+		if (n <= size) {
+			return;
+		}
+		if (n > adj.length) {
+			int capacity = Math.max(n, 2 * adj.length);
+			adj = Arrays.copyOf(adj, capacity);
+			adjLength = Arrays.copyOf(adjLength, capacity);
+			int old = mate.length;
+			mate = Arrays.copyOf(mate, capacity);
+			Arrays.fill(mate, old, capacity, FREE);
+		}
+		size = n;
+	}
+}
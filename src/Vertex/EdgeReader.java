@@ -0,0 +1,144 @@
+package Vertex;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.InputMismatchException;
+
+/**
+ * EdgeReader reads "v1 v2" edge lines from a channel through a
+ * large direct buffer and parses the integers by hand. Like the
+ * Scanner loop it replaces, it reads two integers per line and
+ * ignores the rest of the line.
+ *
+ * @author Siddhartha
+ *
+ */
+public class EdgeReader {
+
+	private static final int BUFFER_SIZE = 1 << 20;
+
+	private ReadableByteChannel channel;
+	private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+	private boolean eof = false;
+	private int line = 1;
+	private int last;
+	private int v1;
+	private int v2;
+
+	/**
+	 * Makes a reader over a channel, which is read to its end
+	 * but not closed.
+	 * @param channel the channel to read edges from
+	 */
+	public EdgeReader(ReadableByteChannel channel) {
+		this.channel = channel;
+		buffer.flip();
+	}
+
+	/**
+	 * Reads the next edge.
+	 * @return true if an edge was read, false at the end of input
+	 * @throws IOException if the channel cannot be read
+	 */
+	public boolean next() throws IOException {
+		int c = skipWhitespace();
+		if (c < 0) {
+			return false;
+		}
+		v1 = readInt(c);
+		if (last == '\n') {
+			line++;
+		}
+		c = skipWhitespace();
+		if (c < 0) {
+			throw new InputMismatchException("Missing vertex on line " + line);
+		}
+		v2 = readInt(c);
+		c = last;
+		while (c >= 0 && c != '\n') {
+			c = read();
+		}
+		line++;
+		return true;
+	}
+
+	/**
+	 * Returns vertex 1 of the last edge read
+	 * @return v1 vertex 1
+	 */
+	public int getV1() {
+		return v1;
+	}
+
+	/**
+	 * Returns vertex 2 of the last edge read
+	 * @return v2 vertex 2
+	 */
+	public int getV2() {
+		return v2;
+	}
+
+	private int read() throws IOException {
+		if (!buffer.hasRemaining()) {
+			if (eof) {
+				return -1;
+			}
+			buffer.clear();
+			int n;
+			do {
+				n = channel.read(buffer);
+			} while (n == 0);
+			buffer.flip();
+			if (n < 0) {
+				eof = true;
+				return -1;
+			}
+		}
+		return buffer.get() & 0xff;
+	}
+
+	private int skipWhitespace() throws IOException {
+		int c = read();
+		while (c == ' ' || c == '\t' || c == '\r' || c == '\n') {
+			if (c == '\n') {
+				line++;
+			}
+			c = read();
+		}
+		return c;
+	}
+
+	/**
+	 * Parses an integer starting at c. The character after the
+	 * digits is consumed into last, and must be whitespace or
+	 * the end of input.
+	 */
+	private int readInt(int c) throws IOException {
+		boolean negative = false;
+		if (c == '-') {
+			negative = true;
+			c = read();
+		}
+		if (c < '0' || c > '9') {
+			throw new InputMismatchException("Bad vertex on line " + line);
+		}
+		long n = 0;
+		while (c >= '0' && c <= '9') {
+			n = n * 10 + (c - '0');
+			if (n > Integer.MAX_VALUE + 1L) {
+				throw new InputMismatchException("Vertex out of range on line " + line);
+			}
+			c = read();
+		}
+		last = c;
+		if (c >= 0 && c != ' ' && c != '\t' && c != '\r' && c != '\n') {
+			throw new InputMismatchException("Bad vertex on line " + line);
+		}
+		n = negative ? -n : n;
+		if (n > Integer.MAX_VALUE) {
+			throw new InputMismatchException("Vertex out of range on line " + line);
+		}
+		return (int) n;
+	}
+}
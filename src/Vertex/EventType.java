@@ -0,0 +1,155 @@
+package Vertex;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * EventType is a JFR event type made at run time with
+ * jdk.jfr.EventFactory. The JFR API is looked up by reflection,
+ * so the tools build and run on Java 8; where it is missing,
+ * newEvent returns null and nothing is recorded.
+ *
+ * @author Siddhartha
+ *
+ */
+class EventType {
+
+	private static Constructor<?> annotation;
+	private static Constructor<?> descriptor;
+	private static Method create;
+	private static Method newEvent;
+	private static Method set;
+	private static Method begin;
+	private static Method end;
+	private static Method shouldCommit;
+	private static Method commit;
+
+	static {
+		try {
+			Class<?> element = Class.forName("jdk.jfr.AnnotationElement");
+			Class<?> value = Class.forName("jdk.jfr.ValueDescriptor");
+			Class<?> factory = Class.forName("jdk.jfr.EventFactory");
+			Class<?> event = Class.forName("jdk.jfr.Event");
+			annotation = element.getConstructor(Class.class, Object.class);
+			descriptor = value.getConstructor(Class.class, String.class, List.class);
+			create = factory.getMethod("create", List.class, List.class);
+			newEvent = factory.getMethod("newEvent");
+			set = event.getMethod("set", int.class, Object.class);
+			begin = event.getMethod("begin");
+			end = event.getMethod("end");
+			shouldCommit = event.getMethod("shouldCommit");
+			commit = event.getMethod("commit");
+		} catch (ReflectiveOperationException e) {
+			create = null;
+		}
+	}
+
+	private Object factory;
+
+	/**
+	 * Makes an event type with string and long fields. The field
+	 * named bytes, if any, is shown as an amount of memory.
+	 * @param name the name of the type
+	 * @param label the label of the type
+	 * @param description what an event of the type is
+	 * @param types the type of every field, String or long
+	 * @param fields the name of every field
+	 * @param labels the label of every field
+	 * @param bytes the name of the field holding bytes, or null
+	 */
+	EventType(String name, String label, String description, Class<?>[] types, String[] fields,
+			String[] labels, String bytes) {
+		if (create == null) {
+			return;
+		}
+		try {
+			List<Object> type = new ArrayList<Object>();
+			type.add(annotation("jdk.jfr.Name", name));
+			type.add(annotation("jdk.jfr.Label", label));
+			type.add(annotation("jdk.jfr.Category", new String[] { "Vertex Cover" }));
+			type.add(annotation("jdk.jfr.Description", description));
+			type.add(annotation("jdk.jfr.StackTrace", false));
+			List<Object> values = new ArrayList<Object>();
+			for (int i = 0; i < fields.length; i++) {
+				List<Object> field = new ArrayList<Object>();
+				field.add(annotation("jdk.jfr.Label", labels[i]));
+				if (fields[i].equals(bytes)) {
+					field.add(annotation("jdk.jfr.DataAmount", "BYTES"));
+				}
+				values.add(descriptor.newInstance(types[i], fields[i], field));
+			}
+			factory = create.invoke(null, type, values);
+		} catch (ReflectiveOperationException e) {
+			factory = null;
+		}
+	}
+
+	/**
+	 * Returns a new event and starts its clock
+	 * @return event the event, or null if JFR is off
+	 */
+	Object begin() {
+		Object event = newEvent();
+		invoke(begin, event);
+		return event;
+	}
+
+	/**
+	 * Returns a new event
+	 * @return event the event, or null if JFR is off
+	 */
+	Object newEvent() {
+		if (factory == null) {
+			return null;
+		}
+		try {
+			return newEvent.invoke(factory);
+		} catch (ReflectiveOperationException e) {
+			factory = null;
+			return null;
+		}
+	}
+
+	/**
+	 * Stops the clock of an event and commits it with its fields
+	 * if the recording wants it.
+	 * @param event the event, or null if JFR is off
+	 * @param values the fields in the order of the type
+	 */
+	void commit(Object event, Object... values) {
+		if (event == null) {
+			return;
+		}
+		invoke(end, event);
+		if (!Boolean.TRUE.equals(invoke(shouldCommit, event))) {
+			return;
+		}
+		try {
+			for (int i = 0; i < values.length; i++) {
+				set.invoke(event, i, values[i]);
+			}
+			commit.invoke(event);
+		} catch (ReflectiveOperationException e) {
+			factory = null;
+		}
+	}
+
+	private Object invoke(Method method, Object event) {
+		if (event == null) {
+			return null;
+		}
+		try {
+			return method.invoke(event);
+		} catch (ReflectiveOperationException e) {
+			factory = null;
+			return null;
+		}
+	}
+
+	private static Object annotation(String type, Object value) throws ReflectiveOperationException {
+		return annotation.newInstance(Class.forName(type), value);
+	}
+}
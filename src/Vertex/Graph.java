@@ -0,0 +1,269 @@
+package Vertex;
+
+import java.util.Arrays;
+
+/**
+ * Graph is a compact undirected graph that every tool loads
+ * its input into. The adjacency is stored in compressed sparse
+ * row (CSR) form: the neighbors of vertex v are
+ * neighbors[offsets[v]] to neighbors[offsets[v + 1] - 1], sorted
+ * in ascending order. The edges are also kept in input order,
+ * with the lower vertex first, for the algorithms that depend
+ * on the order edges were read. A graph loaded straight from
+ * CSR arrays has no input order, so its edges are listed by
+ * lower vertex, then higher vertex, the first time they are
+ * asked for.
+ *
+ * A graph loaded from a file has its vertices renumbered
+ * 0..n-1 in the order of their ids, so the arrays grow with
+ * the number of vertices and not with the largest id; getId
+ * gives back the id a vertex was read with.
+ *
+ * @author Siddhartha
+ *
+ */
+public class Graph {
+
+	private int size;
+	private int vertexCount;
+	private int edgeCount;
+	private volatile int[] v1;
+	private int[] v2;
+	private int[] offsets;
+	private int[] neighbors;
+	private int[] ids;
+
+	/**
+	 * Builds the graph from two parallel arrays of edge
+	 * endpoints. The arrays are kept by the graph and must not
+	 * be changed afterwards.
+	 *
+	 * @param v1 the first vertex of every edge
+	 * @param v2 the second vertex of every edge
+	 * @param edgeCount the number of edges in the arrays
+	 */
+	public Graph(int[] v1, int[] v2, int edgeCount) {
+		this.edgeCount = edgeCount;
+		this.v1 = v1;
+		this.v2 = v2;
+		size = 0;
+		for (int e = 0; e < edgeCount; e++) {
+			if (v1[e] > v2[e]) {
+				int n = v1[e];
+				v1[e] = v2[e];
+				v2[e] = n;
+			}
+			if (size < v2[e]) {
+				size = v2[e];
+			}
+		}
+		if (edgeCount > 0) {
+			size++;
+		}
+
+		offsets = new int[size + 1];
+		for (int e = 0; e < edgeCount; e++) {
+			offsets[v1[e] + 1]++;
+			offsets[v2[e] + 1]++;
+		}
+		for (int v = 0; v < size; v++) {
+			offsets[v + 1] += offsets[v];
+		}
+
+		int[] next = Arrays.copyOf(offsets, size);
+		neighbors = new int[2 * edgeCount];
+		for (int e = 0; e < edgeCount; e++) {
+			neighbors[next[v1[e]]++] = v2[e];
+			neighbors[next[v2[e]]++] = v1[e];
+		}
+		for (int v = 0; v < size; v++) {
+			Arrays.sort(neighbors, offsets[v], offsets[v + 1]);
+			if (offsets[v + 1] > offsets[v]) {
+				vertexCount++;
+			}
+		}
+	}
+
+	/**
+	 * Builds the graph straight from CSR arrays, whose rows
+	 * must already be sorted. The arrays are kept by the graph
+	 * and must not be changed afterwards.
+	 *
+	 * @param size the number of vertex slots
+	 * @param offsets the offsets array, of length size + 1
+	 * @param neighbors the neighbors array
+	 */
+	public Graph(int size, int[] offsets, int[] neighbors) {
+		this.size = size;
+		this.offsets = offsets;
+		this.neighbors = neighbors;
+		edgeCount = offsets[size] / 2;
+		for (int v = 0; v < size; v++) {
+			if (offsets[v + 1] > offsets[v]) {
+				vertexCount++;
+			}
+		}
+	}
+
+	/**
+	 * Lists the edges from the CSR rows, each edge once from
+	 * its lower vertex. A loop is in its row twice and is
+	 * listed at the second. v1 is written last so threads that
+	 * see it also see v2.
+	 */
+	private synchronized void listEdges() {
+		if (v1 != null) {
+			return;
+		}
+		int[] a = new int[edgeCount];
+		int[] b = new int[edgeCount];
+		int e = 0;
+		boolean loop = false;
+		for (int v = 0; v < size; v++) {
+			for (int p = offsets[v]; p < offsets[v + 1]; p++) {
+				if (v == neighbors[p]) {
+					loop = !loop;
+				}
+				if (v < neighbors[p] || v == neighbors[p] && !loop) {
+					a[e] = v;
+					b[e] = neighbors[p];
+					e++;
+				}
+			}
+		}
+		v2 = b;
+		v1 = a;
+	}
+
+	/**
+	 * Returns the number of vertex slots, the largest vertex
+	 * plus one
+	 * @return size the number of vertex slots
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of vertices with at least one edge
+	 * @return vertexCount the number of vertices
+	 */
+	public int getVertexCount() {
+		return vertexCount;
+	}
+
+	/**
+	 * Returns the number of edges
+	 * @return edgeCount the number of edges
+	 */
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * Returns the lower vertex of an edge
+	 * @param e the edge index, in input order
+	 * @return v1 the lower vertex
+	 */
+	public int getV1(int e) {
+		if (v1 == null) {
+			listEdges();
+		}
+		return v1[e];
+	}
+
+	/**
+	 * Returns the higher vertex of an edge
+	 * @param e the edge index, in input order
+	 * @return v2 the higher vertex
+	 */
+	public int getV2(int e) {
+		if (v1 == null) {
+			listEdges();
+		}
+		return v2[e];
+	}
+
+	/**
+	 * Returns the number of edges on a vertex
+	 * @param v the vertex
+	 * @return the degree of v
+	 */
+	public int degree(int v) {
+		return offsets[v + 1] - offsets[v];
+	}
+
+	/**
+	 * Returns the CSR offsets array. Entry v is the position of
+	 * the first neighbor of v. Must not be changed.
+	 * @return offsets the offsets array, of length size + 1
+	 */
+	public int[] getOffsets() {
+		return offsets;
+	}
+
+	/**
+	 * Returns the CSR neighbors array. Must not be changed.
+	 * @return neighbors the neighbors array, of length 2 * edgeCount
+	 */
+	public int[] getNeighbors() {
+		return neighbors;
+	}
+
+	/**
+	 * Returns the id a vertex was read with
+	 * @param v the vertex
+	 * @return id the id of v in the input
+	 */
+	public int getId(int v) {
+		return ids == null ? v : ids[v];
+	}
+
+	/**
+	 * Returns the vertex read with an id
+	 * @param id the id in the input
+	 * @return v the vertex, or -1 if no edge has that id
+	 */
+	public int getIndex(int id) {
+		if (ids == null) {
+			return id >= 0 && id < size ? id : -1;
+		}
+		int v = Arrays.binarySearch(ids, id);
+		return v >= 0 ? v : -1;
+	}
+
+	/**
+	 * Returns the id of every vertex, in increasing order, or
+	 * null when every vertex is its own id. Must not be changed.
+	 * @return ids the ids of the vertices
+	 */
+	public int[] getIds() {
+		return ids;
+	}
+
+	/**
+	 * Sets the ids the vertices were read with.
+	 */
+	void setIds(int[] ids) {
+		this.ids = ids;
+	}
+
+	/**
+	 * Checks if two vertices share an edge by searching the
+	 * sorted neighbors of the lower degree vertex.
+	 * @param a a vertex
+	 * @param b a vertex
+	 * @return true if the edge exists, otherwise false
+	 */
+	public boolean hasEdge(int a, int b) {
+		if (a < 0 || b < 0 || a >= size || b >= size) {
+			return false;
+		}
+		if (degree(a) > degree(b)) {
+			int n = a;
+			a = b;
+			b = n;
+		}
+		return Arrays.binarySearch(neighbors, offsets[a], offsets[a + 1], b) >= 0;
+	}
+}
@@ -0,0 +1,149 @@
+package Vertex;
+
+import java.util.Arrays;
+
+/**
+ * GraphBuilder collects edges into growing primitive arrays
+ * and turns them into a Graph once all edges are read.
+ *
+ * @author Siddhartha
+ *
+ */
+public class GraphBuilder {
+
+	private int[] v1;
+	private int[] v2;
+	private int edgeCount = 0;
+
+	/**
+	 * Makes an empty builder
+	 */
+	public GraphBuilder() {
+		this(1024);
+	}
+
+	/**
+	 * Makes an empty builder with room for a number of edges
+	 * @param capacity the number of edges expected
+	 */
+	public GraphBuilder(int capacity) {
+		v1 = new int[Math.max(capacity, 16)];
+		v2 = new int[Math.max(capacity, 16)];
+	}
+
+	/**
+	 * Adds an edge between two vertices
+	 * @param a vertex 1
+	 * @param b vertex 2
+	 */
+	public void addEdge(int a, int b) {
+		if (edgeCount == v1.length) {
+			v1 = Arrays.copyOf(v1, 2 * edgeCount);
+			v2 = Arrays.copyOf(v2, 2 * edgeCount);
+		}
+		v1[edgeCount] = a;
+		v2[edgeCount] = b;
+		edgeCount++;
+	}
+
+	/**
+	 * Returns the number of edges added so far
+	 * @return edgeCount the number of edges
+	 */
+	public int getEdgeCount() {
+		return edgeCount;
+	}
+
+	/**
+	 * Builds the graph from the edges added so far
+	 * @return graph the finished graph
+	 */
+	public Graph build() {
+		return new Graph(v1, v2, edgeCount);
+	}
+
+	/**
+	 * Builds the graph with its vertices renumbered 0..n-1 in
+	 * the order of their ids, keeping the ids in the graph. The
+	 * order is kept, so every tie broken by the lower vertex is
+	 * broken the same way. When the ids fit in a table about
+	 * the size of the edge arrays the table maps them, otherwise
+	 * they are sorted and searched.
+	 * @return graph the finished graph
+	 */
+	public Graph buildDense() {
+		int[] ids = null;
+		if (edgeCount > 0) {
+			int min = v1[0];
+			int max = v1[0];
+			for (int e = 0; e < edgeCount; e++) {
+				min = Math.min(min, Math.min(v1[e], v2[e]));
+				max = Math.max(max, Math.max(v1[e], v2[e]));
+			}
+			if (min >= 0 && max < 4L * edgeCount + 1024) {
+				ids = mapByTable(max);
+			} else {
+				ids = mapBySort();
+			}
+		}
+		Graph graph = new Graph(v1, v2, edgeCount);
+		graph.setIds(ids);
+		return graph;
+	}
+
+	/**
+	 * Renumbers the ids through a table indexed by id.
+	 * @return ids the ids in order, or null if they are 0..max
+	 */
+	private int[] mapByTable(int max) {
+		int[] index = new int[max + 1];
+		Arrays.fill(index, -1);
+		for (int e = 0; e < edgeCount; e++) {
+			index[v1[e]] = 0;
+			index[v2[e]] = 0;
+		}
+		int n = 0;
+		for (int id = 0; id <= max; id++) {
+			if (index[id] >= 0) {
+				index[id] = n++;
+			}
+		}
+		if (n == max + 1) {
+			return null;
+		}
+		int[] ids = new int[n];
+		for (int id = 0; id <= max; id++) {
+			if (index[id] >= 0) {
+				ids[index[id]] = id;
+			}
+		}
+		for (int e = 0; e < edgeCount; e++) {
+			v1[e] = index[v1[e]];
+			v2[e] = index[v2[e]];
+		}
+		return ids;
+	}
+
+	/**
+	 * Renumbers the ids by sorting them and searching each one.
+	 * @return ids the ids in order
+	 */
+	private int[] mapBySort() {
+		int[] ids = new int[2 * edgeCount];
+		System.arraycopy(v1, 0, ids, 0, edgeCount);
+		System.arraycopy(v2, 0, ids, edgeCount, edgeCount);
+		Arrays.sort(ids);
+		int n = 0;
+		for (int i = 0; i < ids.length; i++) {
+			if (n == 0 || ids[n - 1] != ids[i]) {
+				ids[n++] = ids[i];
+			}
+		}
+		ids = Arrays.copyOf(ids, n);
+		for (int e = 0; e < edgeCount; e++) {
+			v1[e] = Arrays.binarySearch(ids, v1[e]);
+			v2[e] = Arrays.binarySearch(ids, v2[e]);
+		}
+		return ids;
+	}
+}
@@ -0,0 +1,161 @@
+package Vertex;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * GraphConverter turns a "v1 v2" edge list file into the binary
+ * CSR format that GraphLoader maps straight into a Graph. The
+ * file is a 16 byte header (the magic "VCSR", a version, the
+ * number of vertex slots and the number of edges) followed by
+ * the offsets array and the neighbors array, all little endian
+ * ints. A version 2 file is a graph whose vertices were
+ * renumbered, and ends with the id of every vertex.
+ *
+ * @author Siddhartha
+ *
+ */
+public class GraphConverter {
+
+	/** The first four bytes of a binary graph file, "VCSR" */
+	public static final int MAGIC = 0x52534356;
+	public static final int VERSION = 1;
+	public static final int VERSION_IDS = 2;
+	public static final int HEADER_SIZE = 16;
+
+	/**
+	 * Main method that checks for two arguments and converts
+	 * the graph.
+	 * @param args array of command line inputs
+	 */
+	public static void main(String[] args) {
+		Metrics metrics = new Metrics("GraphConverter");
+		if (args.length != 2) {
+			System.out.println("Usage: java GraphConverter <graph> <binary graph>");
+		} else {
+			try {
+				metrics.begin("load");
+				Graph graph = GraphLoader.load(args[0]);
+				metrics.begin("write");
+				write(graph, args[1]);
+				metrics.end();
+				metrics.count("vertices", graph.getVertexCount());
+				metrics.count("edges", graph.getEdgeCount());
+			} catch (IOException e) {
+				System.out.println(e.getMessage());
+			}
+		}
+		metrics.report(System.out);
+	}
+
+	/**
+	 * Writes a graph to a file in the binary CSR format.
+	 *
+	 * @param graph the graph to write
+	 * @param name the name of the output file
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void write(Graph graph, String name) throws IOException {
+		FileChannel channel = FileChannel.open(Paths.get(name), StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+		try {
+			ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+			buffer.putInt(MAGIC);
+			buffer.putInt(graph.getIds() == null ? VERSION : VERSION_IDS);
+			buffer.putInt(graph.getSize());
+			buffer.putInt(graph.getEdgeCount());
+			writeInts(channel, buffer, graph.getOffsets(), graph.getSize() + 1);
+			writeInts(channel, buffer, graph.getNeighbors(), 2 * graph.getEdgeCount());
+			if (graph.getIds() != null) {
+				writeInts(channel, buffer, graph.getIds(), graph.getSize());
+			}
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Maps a binary CSR file and copies its arrays into a graph
+	 * with two bulk reads; nothing is decoded per edge. One pass
+	 * then checks that the offsets never fall and that every
+	 * neighbor is a vertex of the graph.
+	 *
+	 * @param channel the open file, positioned anywhere
+	 * @return graph the loaded graph
+	 * @throws IOException if the file cannot be read, is not a
+	 * binary graph or is corrupt
+	 */
+	public static Graph read(FileChannel channel) throws IOException {
+		long length = channel.size();
+		if (length < HEADER_SIZE) {
+			throw new IOException("Binary graph is missing its header");
+		}
+		ByteBuffer map = channel.map(FileChannel.MapMode.READ_ONLY, 0, length);
+		map.order(ByteOrder.LITTLE_ENDIAN);
+		if (map.getInt() != MAGIC) {
+			throw new IOException("Not a binary graph");
+		}
+		int version = map.getInt();
+		if (version != VERSION && version != VERSION_IDS) {
+			throw new IOException("Not a version " + VERSION + " or " + VERSION_IDS + " binary graph");
+		}
+		int size = map.getInt();
+		int edgeCount = map.getInt();
+		long idBytes = version == VERSION_IDS ? 4L * size : 0;
+		if (size < 0 || edgeCount < 0
+				|| length != HEADER_SIZE + 4L * (size + 1) + 8L * edgeCount + idBytes) {
+			throw new IOException("Binary graph has the wrong length");
+		}
+		IntBuffer ints = map.asIntBuffer();
+		int[] offsets = new int[size + 1];
+		int[] neighbors = new int[2 * edgeCount];
+		ints.get(offsets);
+		ints.get(neighbors);
+		if (offsets[size] != neighbors.length) {
+			throw new IOException("Binary graph offsets do not match its edges");
+		}
+		if (offsets[0] != 0) {
+			throw new IOException("Binary graph is corrupt");
+		}
+		for (int v = 0; v < size; v++) {
+			if (offsets[v + 1] < offsets[v] || offsets[v + 1] > neighbors.length) {
+				throw new IOException("Binary graph is corrupt");
+			}
+			for (int p = offsets[v]; p < offsets[v + 1]; p++) {
+				if (neighbors[p] < 0 || neighbors[p] >= size) {
+					throw new IOException("Binary graph is corrupt");
+				}
+			}
+		}
+		Graph graph = new Graph(size, offsets, neighbors);
+		if (version == VERSION_IDS) {
+			int[] ids = new int[size];
+			ints.get(ids);
+			graph.setIds(ids);
+		}
+		return graph;
+	}
+
+	private static void writeInts(FileChannel channel, ByteBuffer buffer, int[] values, int count)
+			throws IOException {
+		for (int i = 0; i < count; i++) {
+			if (buffer.remaining() < 4) {
+				buffer.flip();
+				while (buffer.hasRemaining()) {
+					channel.write(buffer);
+				}
+				buffer.clear();
+			}
+			buffer.putInt(values[i]);
+		}
+	}
+}
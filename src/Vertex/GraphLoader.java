@@ -0,0 +1,88 @@
+package Vertex;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * GraphLoader is the shared input path of every tool. It reads
+ * an edge list file with an EdgeReader straight into the
+ * primitive arrays of a GraphBuilder, or maps a binary CSR file
+ * written by GraphConverter. The name "-" reads an edge list
+ * from standard input.
+ *
+ * @author Siddhartha
+ *
+ */
+public class GraphLoader {
+
+	public static final String STDIN = "-";
+
+	/**
+	 * Loads an edge list or binary CSR file into a graph. The
+	 * graph reports the vertex and edge counts that were read.
+	 *
+	 * @param name the name of the edge list file
+	 * @return graph the loaded graph
+	 * @throws IOException if the file cannot be read
+	 */
+	public static Graph load(String name) throws IOException {
+		if (name.equals(STDIN)) {
+			return readEdges(Channels.newChannel(System.in), 1024);
+		}
+		FileChannel channel = FileChannel.open(Paths.get(name), StandardOpenOption.READ);
+		try {
+			if (isBinary(channel)) {
+				return GraphConverter.read(channel);
+			}
+			// edge lines in the rmat files average a little over 8 bytes
+			long guess = channel.size() / 8 + 16;
+			return readEdges(channel, (int) Math.min(guess, Integer.MAX_VALUE - 8));
+		} finally {
+			channel.close();
+		}
+	}
+
+	/**
+	 * Opens an edge list for reading one edge at a time, from a
+	 * file or, for "-", from standard input.
+	 *
+	 * @param name the name of the edge list file
+	 * @return channel the channel to read the edges from
+	 * @throws IOException if the file cannot be opened
+	 */
+	public static ReadableByteChannel open(String name) throws IOException {
+		if (name.equals(STDIN)) {
+			return Channels.newChannel(System.in);
+		}
+		return FileChannel.open(Paths.get(name), StandardOpenOption.READ);
+	}
+
+	private static Graph readEdges(ReadableByteChannel channel, int capacity) throws IOException {
+		GraphBuilder builder = new GraphBuilder(capacity);
+		EdgeReader reader = new EdgeReader(channel);
+		while (reader.next()) {
+			builder.addEdge(reader.getV1(), reader.getV2());
+		}
+		return builder.buildDense();
+	}
+
+	/**
+	 * Checks the first bytes of a file for the binary graph
+	 * magic, and leaves the channel at the start of the file.
+	 */
+	private static boolean isBinary(FileChannel channel) throws IOException {
+		ByteBuffer head = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+		int n = 0;
+		while (head.hasRemaining() && n >= 0) {
+			n = channel.read(head);
+		}
+		channel.position(0);
+		return !head.hasRemaining() && head.getInt(0) == GraphConverter.MAGIC;
+	}
+}
@@ -0,0 +1,195 @@
+package Vertex;
+
+import java.util.Arrays;
+
+/**
+ * HopcroftKarp finds a maximum matching of a bipartite graph
+ * held in CSR form: the row of a left vertex lists the right
+ * vertices it is joined to. Each phase layers the graph with a
+ * breadth first search from the free left vertices and then
+ * augments along vertex disjoint shortest paths with an
+ * iterative depth first search, so no recursion depth limit is
+ * hit on large graphs.
+ *
+ * The left and right vertices are numbered separately, which
+ * lets a graph's own CSR arrays serve as the bipartite double
+ * cover, or as the edges between two sides of a split.
+ *
+ * @author Siddhartha
+ *
+ */
+public class HopcroftKarp {
+
+	private static final int FREE = -1;
+	private static final int INFINITY = Integer.MAX_VALUE;
+
+	private int[] offsets;
+	private int[] targets;
+	private int[] left;
+	private int leftCount;
+	private int[] matchLeft;
+	private int[] matchRight;
+	private int[] dist;
+	private int[] queue;
+	private int[] next;
+	private int[] stack;
+	private int size = 0;
+
+	/**
+	 * Makes an empty matching between the listed left vertices
+	 * and the right vertices.
+	 *
+	 * @param offsets the CSR offsets of the left vertex rows
+	 * @param targets the right vertices of every row
+	 * @param rightCount the number of right vertex ids
+	 * @param left the left vertices that take part
+	 * @param leftCount the number of entries of left in use
+	 */
+	public HopcroftKarp(int[] offsets, int[] targets, int rightCount, int[] left, int leftCount) {
+		int n = offsets.length - 1;
+		this.offsets = offsets;
+		this.targets = targets;
+		this.left = left;
+		this.leftCount = leftCount;
+		matchLeft = new int[n];
+		matchRight = new int[rightCount];
+		Arrays.fill(matchLeft, FREE);
+		Arrays.fill(matchRight, FREE);
+		dist = new int[n];
+		queue = new int[Math.max(leftCount, 1)];
+		next = new int[n];
+		stack = new int[Math.max(leftCount, 1)];
+	}
+
+	/**
+	 * Adds an edge to the matching before run, to start from a
+	 * matching found earlier. Edges whose ends are taken are
+	 * skipped.
+	 * @param l a left vertex
+	 * @param r a right vertex in the row of l
+	 * @return true if the edge was added
+	 */
+	public boolean match(int l, int r) {
+		if (matchLeft[l] != FREE || matchRight[r] != FREE) {
+			return false;
+		}
+		matchLeft[l] = r;
+		matchRight[r] = l;
+		size++;
+		return true;
+	}
+
+	/**
+	 * Grows the matching until it is maximum.
+	 * @return size the number of matched pairs
+	 */
+	public int run() {
+		while (layer()) {
+			for (int i = 0; i < leftCount; i++) {
+				int l = left[i];
+				if (matchLeft[l] == FREE && augment(l)) {
+					size++;
+				}
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Returns the matching size
+	 * @return size the number of matched pairs
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the right vertex matched to each left vertex, or
+	 * -1. Must not be changed.
+	 * @return matchLeft the partner of each left vertex
+	 */
+	public int[] getMatchLeft() {
+		return matchLeft;
+	}
+
+	/**
+	 * Returns the left vertex matched to each right vertex, or
+	 * -1. Must not be changed.
+	 * @return matchRight the partner of each right vertex
+	 */
+	public int[] getMatchRight() {
+		return matchRight;
+	}
+
+	/**
+	 * Layers the left vertices by alternating distance from the
+	 * free ones.
+	 * @return true if some free right vertex can be reached
+	 */
+	private boolean layer() {
+		int head = 0;
+		int tail = 0;
+		for (int i = 0; i < leftCount; i++) {
+			int l = left[i];
+			if (matchLeft[l] == FREE) {
+				dist[l] = 0;
+				queue[tail++] = l;
+			} else {
+				dist[l] = INFINITY;
+			}
+		}
+		boolean found = false;
+		while (head < tail) {
+			int l = queue[head++];
+			for (int p = offsets[l]; p < offsets[l + 1]; p++) {
+				int m = matchRight[targets[p]];
+				if (m == FREE) {
+					found = true;
+				} else if (dist[m] == INFINITY) {
+					dist[m] = dist[l] + 1;
+					queue[tail++] = m;
+				}
+			}
+		}
+		for (int i = 0; i < leftCount; i++) {
+			next[left[i]] = offsets[left[i]];
+		}
+		return found;
+	}
+
+	/**
+	 * Looks for an augmenting path from a free left vertex down
+	 * the layers and flips it.
+	 * @return true if the matching grew
+	 */
+	private boolean augment(int root) {
+		int top = 0;
+		stack[top++] = root;
+		while (top > 0) {
+			int l = stack[top - 1];
+			if (next[l] == offsets[l + 1]) {
+				dist[l] = INFINITY;
+				top--;
+				continue;
+			}
+			int r = targets[next[l]];
+			int m = matchRight[r];
+			if (m == FREE) {
+				// flip the path held on the stack
+				for (int i = top - 1; i >= 0; i--) {
+					int u = stack[i];
+					int w = targets[next[u]];
+					matchLeft[u] = w;
+					matchRight[w] = u;
+				}
+				return true;
+			}
+			if (dist[m] == dist[l] + 1) {
+				stack[top++] = m;
+			} else {
+				next[l]++;
+			}
+		}
+		return false;
+	}
+}
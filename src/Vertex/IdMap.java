@@ -0,0 +1,110 @@
+package Vertex;
+
+import java.util.Arrays;
+
+/**
+ * IdMap numbers vertex ids 0..n-1 in the order they are first
+ * added, for tools that meet new ids as they go. The ids are
+ * kept in an open addressing table of ints with linear probing,
+ * so no id is boxed, and the table doubles when half full.
+ *
+ * @author Siddhartha
+ *
+ */
+public class IdMap {
+
+	static final int EMPTY = -1;
+
+	private int[] keys;
+	private int[] values;
+	private int[] ids;
+	private int size = 0;
+
+	/**
+	 * Makes an empty map.
+	 * @param capacity the number of ids expected
+	 */
+	public IdMap(int capacity) {
+		int slots = Integer.highestOneBit(Math.max(capacity, 8) - 1) << 2;
+		keys = new int[slots];
+		values = new int[slots];
+		Arrays.fill(values, EMPTY);
+		ids = new int[Math.max(capacity, 8)];
+	}
+
+	/**
+	 * Returns the vertex of an id, numbering it if it is new.
+	 * @param id the id
+	 * @return v the vertex of the id
+	 */
+	public int add(int id) {
+		int slot = find(id);
+		if (values[slot] != EMPTY) {
+			return values[slot];
+		}
+		if (size == ids.length) {
+			ids = Arrays.copyOf(ids, 2 * size);
+		}
+		ids[size] = id;
+		keys[slot] = id;
+		values[slot] = size;
+		if (2 * ++size > keys.length) {
+			rehash();
+		}
+		return size - 1;
+	}
+
+	/**
+	 * Returns the vertex of an id
+	 * @param id the id
+	 * @return v the vertex, or -1 if the id was never added
+	 */
+	public int get(int id) {
+		return values[find(id)];
+	}
+
+	/**
+	 * Returns the id of a vertex
+	 * @param v the vertex
+	 * @return id the id it was added with
+	 */
+	public int getId(int v) {
+		return ids[v];
+	}
+
+	/**
+	 * Returns the number of ids
+	 * @return size the number of ids added
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Finds the slot of an id, or the empty slot it would go in.
+	 */
+	private int find(int id) {
+		int mask = keys.length - 1;
+		int hash = id * 0x9E3779B9;
+		int slot = (hash ^ hash >>> 16) & mask;
+		while (values[slot] != EMPTY && keys[slot] != id) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private void rehash() {
+		int[] oldKeys = keys;
+		int[] oldValues = values;
+		keys = new int[2 * oldKeys.length];
+		values = new int[2 * oldKeys.length];
+		Arrays.fill(values, EMPTY);
+		for (int s = 0; s < oldKeys.length; s++) {
+			if (oldValues[s] != EMPTY) {
+				int slot = find(oldKeys[s]);
+				keys[slot] = oldKeys[s];
+				values[slot] = oldValues[s];
+			}
+		}
+	}
+}
@@ -0,0 +1,150 @@
+package Vertex;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.BitSet;
+
+/**
+ * IntWriter writes vertices and edges as ASCII lines. The
+ * digits are encoded straight into a byte buffer that goes out
+ * in one write when full, so nothing is boxed, formatted or
+ * flushed per line, and writing a large output is bounded by
+ * the disk. Like PrintStream it does not throw: the first
+ * IOException is kept and checkError reports it.
+ *
+ * @author Siddhartha
+ *
+ */
+public class IntWriter {
+
+	static final int BUFFER_SIZE = 1 << 16;
+	// room for a line of two ints
+	static final int LINE_SIZE = 24;
+	static final byte[] MIN_VALUE = "-2147483648".getBytes();
+
+	private OutputStream out;
+	private byte[] buffer = new byte[BUFFER_SIZE];
+	private int length = 0;
+	private IOException error;
+
+	/**
+	 * Makes a writer over a stream.
+	 * @param out the stream to write to
+	 */
+	public IntWriter(OutputStream out) {
+		this.out = out;
+	}
+
+	/**
+	 * Writes an int on a line of its own.
+	 * @param v the int
+	 */
+	public void writeLine(int v) {
+		if (length + LINE_SIZE > buffer.length) {
+			drain();
+		}
+		encode(v);
+		buffer[length++] = '\n';
+	}
+
+	/**
+	 * Writes two ints on a line, split by a space.
+	 * @param v1 vertex 1
+	 * @param v2 vertex 2
+	 */
+	public void writeEdge(int v1, int v2) {
+		if (length + LINE_SIZE > buffer.length) {
+			drain();
+		}
+		encode(v1);
+		buffer[length++] = ' ';
+		encode(v2);
+		buffer[length++] = '\n';
+	}
+
+	/**
+	 * Writes every vertex of a set in increasing order, one per
+	 * line, by the ids of a graph.
+	 * @param set the vertices
+	 * @param graph the graph the vertices belong to, or null to
+	 * write the vertices as they are
+	 */
+	public void writeSet(BitSet set, Graph graph) {
+		for (int v = set.nextSetBit(0); v >= 0; v = set.nextSetBit(v + 1)) {
+			writeLine(graph == null ? v : graph.getId(v));
+		}
+	}
+
+	/**
+	 * Writes out the buffer and flushes the stream.
+	 */
+	public void flush() {
+		drain();
+		if (error == null) {
+			try {
+				out.flush();
+			} catch (IOException e) {
+				error = e;
+			}
+		}
+	}
+
+	/**
+	 * Flushes and closes the stream.
+	 */
+	public void close() {
+		flush();
+		try {
+			out.close();
+		} catch (IOException e) {
+			if (error == null) {
+				error = e;
+			}
+		}
+	}
+
+	/**
+	 * Checks if a write has failed
+	 * @return true if an IOException was thrown
+	 */
+	public boolean checkError() {
+		return error != null;
+	}
+
+	private void drain() {
+		if (length > 0 && error == null) {
+			try {
+				out.write(buffer, 0, length);
+			} catch (IOException e) {
+				error = e;
+			}
+		}
+		length = 0;
+	}
+
+	/**
+	 * Encodes an int in decimal, writing the digits from the
+	 * end of its place in the buffer.
+	 */
+	private void encode(int v) {
+		if (v == Integer.MIN_VALUE) {
+			System.arraycopy(MIN_VALUE, 0, buffer, length, MIN_VALUE.length);
+			length += MIN_VALUE.length;
+			return;
+		}
+		if (v < 0) {
+			buffer[length++] = '-';
+			v = -v;
+		}
+		int digits = 1;
+		for (int n = v; n >= 10; n /= 10) {
+			digits++;
+		}
+		int p = length + digits;
+		length = p;
+		do {
+			buffer[--p] = (byte) ('0' + v % 10);
+			v /= 10;
+		} while (v > 0);
+	}
+}
@@ -0,0 +1,423 @@
+package Vertex;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Kernel shrinks a graph with the classic vertex cover
+ * reduction rules and remembers how to turn a cover of the
+ * shrunken graph back into a cover of the original one.
+ *
+ * A vertex with a loop is put in the cover before anything
+ * else. The rules are then applied from a worklist, so each
+ * vertex is looked at again only when its degree drops:
+ * a vertex of degree 0 is dropped; a vertex of degree 1 puts
+ * its neighbor in the cover; a vertex of degree 2 whose
+ * neighbors share an edge puts both neighbors in the cover,
+ * and otherwise it is folded with its neighbors into one new
+ * vertex; a vertex of degree up to DOMINATION_DEGREE puts a
+ * neighbor in the cover if that neighbor is adjacent to all of
+ * its other neighbors, since any cover without the neighbor
+ * can swap the vertex for it. With a budget k, the Buss rule
+ * also puts every vertex of degree above the remaining budget
+ * in the cover.
+ *
+ * Rows stay sorted, since a folded vertex is numbered above
+ * every vertex before it, so the domination rule looks up its
+ * edges by binary search.
+ *
+ * @author Siddhartha
+ *
+ */
+public class Kernel {
+
+	static final byte ALIVE = 0;
+	static final byte IN = 1;
+	static final byte OUT = 2;
+	static final byte FOLDED = 3;
+	static final int DOMINATION_DEGREE = 8;
+
+	private int size;
+	private int count;
+	private int[][] adj;
+	private int[] adjLength;
+	private int[] deg;
+	private byte[] state;
+	private int[] stamp;
+	private int time = 0;
+
+	private int[] work;
+	private int workSize = 0;
+	private boolean[] queued;
+
+	private int forced = 0;
+	private int[] folds = new int[64];
+	private int foldCount = 0;
+
+	private int[] kernelVertices;
+	private int[] live = new int[DOMINATION_DEGREE];
+
+	/**
+	 * Copies a graph into the reducible form. Repeated edges
+	 * are dropped, and a vertex with a loop is put in the cover
+	 * at once, since only it can cover the loop.
+	 * @param graph the graph to reduce
+	 */
+	public Kernel(Graph graph) {
+		size = graph.getSize();
+		count = size;
+		// every fold removes three vertices and adds one
+		int capacity = size + size / 2 + 1;
+		adj = new int[capacity][];
+		adjLength = new int[capacity];
+		deg = new int[capacity];
+		state = new byte[capacity];
+		stamp = new int[capacity];
+		queued = new boolean[capacity];
+		work = new int[Math.max(size, 16)];
+		int[] offsets = graph.getOffsets();
+		int[] neighbors = graph.getNeighbors();
+		boolean[] loop = new boolean[size];
+		for (int v = 0; v < size; v++) {
+			int[] row = new int[offsets[v + 1] - offsets[v]];
+			int n = 0;
+			for (int p = offsets[v]; p < offsets[v + 1]; p++) {
+				if (neighbors[p] == v) {
+					loop[v] = true;
+				} else if (n == 0 || row[n - 1] != neighbors[p]) {
+					row[n++] = neighbors[p];
+				}
+			}
+			adj[v] = row;
+			adjLength[v] = n;
+			deg[v] = n;
+			push(v);
+		}
+		for (int v = 0; v < size; v++) {
+			if (loop[v]) {
+				take(v);
+			}
+		}
+	}
+
+	/**
+	 * Applies the degree 0, 1 and 2 rules and the domination
+	 * rule until none fits.
+	 */
+	public void reduce() {
+		while (workSize > 0) {
+			int v = work[--workSize];
+			queued[v] = false;
+			if (state[v] == ALIVE && deg[v] <= 2) {
+				reduceVertex(v);
+			} else if (state[v] == ALIVE && deg[v] <= DOMINATION_DEGREE) {
+				dominate(v);
+			}
+		}
+	}
+
+	/**
+	 * Applies the degree 0, 1 and 2 rules, the domination rule
+	 * and the Buss rule for a cover of size k until none fits.
+	 * @param k the size of the vertex cover
+	 * @return false if the rules show there is no vertex cover
+	 * of size k, otherwise true
+	 */
+	public boolean reduce(int k) {
+		boolean changed = true;
+		while (changed) {
+			reduce();
+			changed = false;
+			for (int v = 0; v < count; v++) {
+				if (state[v] == ALIVE && deg[v] > k - getOffset()) {
+					take(v);
+					changed = true;
+				}
+			}
+			if (k - getOffset() < 0) {
+				return false;
+			}
+		}
+		int budget = k - getOffset();
+		long edges = 0;
+		for (int v = 0; v < count; v++) {
+			if (state[v] == ALIVE) {
+				edges += deg[v];
+			}
+		}
+		return edges / 2 <= (long) budget * budget;
+	}
+
+	/**
+	 * Returns how much the reductions took off the size of a
+	 * minimum cover: one per forced vertex and one per fold.
+	 * @return the cover size already accounted for
+	 */
+	public int getOffset() {
+		return forced + foldCount;
+	}
+
+	/**
+	 * Returns the vertices the rules put in the cover.
+	 * @return forced the number of forced vertices
+	 */
+	public int getForcedCount() {
+		return forced;
+	}
+
+	/**
+	 * Returns the number of degree 2 folds made.
+	 * @return foldCount the number of folds
+	 */
+	public int getFoldCount() {
+		return foldCount;
+	}
+
+	/**
+	 * Builds the reduced graph with its vertices numbered
+	 * 0..n-1. getKernelVertices tells which vertex each number
+	 * stands for.
+	 * @return kernel the reduced graph
+	 */
+	public Graph getKernel() {
+		int[] number = new int[count];
+		int n = 0;
+		for (int v = 0; v < count; v++) {
+			if (state[v] == ALIVE && deg[v] > 0) {
+				number[v] = n++;
+			}
+		}
+		kernelVertices = new int[n];
+		GraphBuilder builder = new GraphBuilder();
+		for (int v = 0; v < count; v++) {
+			if (state[v] == ALIVE && deg[v] > 0) {
+				kernelVertices[number[v]] = v;
+				for (int p = 0; p < adjLength[v]; p++) {
+					int u = adj[v][p];
+					if (v < u && state[u] == ALIVE) {
+						builder.addEdge(number[v], number[u]);
+					}
+				}
+			}
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Returns the vertex behind each number of the last kernel
+	 * built. Numbers past the original graph stand for folds.
+	 * @return kernelVertices the vertex of each kernel number
+	 */
+	public int[] getKernelVertices() {
+		return kernelVertices;
+	}
+
+	/**
+	 * Turns a cover of the last kernel built into a cover of
+	 * the original graph. The folds are undone newest first:
+	 * a folded vertex in the cover stands for its two outer
+	 * vertices, and otherwise the middle vertex is taken.
+	 * @param kernelCover the cover of the kernel, by kernel number
+	 * @return cover a cover of the original graph
+	 */
+	public BitSet unfold(BitSet kernelCover) {
+		BitSet cover = new BitSet(count);
+		for (int v = 0; v < count; v++) {
+			if (state[v] == IN) {
+				cover.set(v);
+			}
+		}
+		for (int i = kernelCover.nextSetBit(0); i >= 0; i = kernelCover.nextSetBit(i + 1)) {
+			cover.set(kernelVertices[i]);
+		}
+		for (int f = foldCount - 1; f >= 0; f--) {
+			int v = folds[4 * f];
+			int a = folds[4 * f + 1];
+			int b = folds[4 * f + 2];
+			int w = folds[4 * f + 3];
+			if (cover.get(w)) {
+				cover.clear(w);
+				cover.set(a);
+				cover.set(b);
+			} else {
+				cover.set(v);
+			}
+		}
+		return cover;
+	}
+
+	/**
+	 * Applies the rule that fits a vertex of degree 2 or less.
+	 */
+	private void reduceVertex(int v) {
+		if (deg[v] == 0) {
+			remove(v, OUT);
+			return;
+		}
+		int a = -1;
+		int b = -1;
+		for (int p = 0; p < adjLength[v]; p++) {
+			int u = adj[v][p];
+			if (state[u] == ALIVE) {
+				if (a < 0) {
+					a = u;
+				} else {
+					b = u;
+					break;
+				}
+			}
+		}
+		if (deg[v] == 1) {
+			take(a);
+		} else if (adjacent(a, b)) {
+			take(a);
+			take(b);
+		} else {
+			fold(v, a, b);
+		}
+		if (state[v] == ALIVE) {
+			remove(v, OUT);
+		}
+	}
+
+	/**
+	 * Puts in the cover a neighbor of v that is adjacent to all
+	 * of the other neighbors of v, if there is one.
+	 */
+	private void dominate(int v) {
+		int n = 0;
+		for (int p = 0; p < adjLength[v]; p++) {
+			if (state[adj[v][p]] == ALIVE) {
+				live[n++] = adj[v][p];
+			}
+		}
+		for (int i = 0; i < n; i++) {
+			int u = live[i];
+			if (deg[u] < n) {
+				continue;
+			}
+			boolean dominates = true;
+			for (int j = 0; j < n && dominates; j++) {
+				dominates = j == i
+						|| Arrays.binarySearch(adj[u], 0, adjLength[u], live[j]) >= 0;
+			}
+			if (dominates) {
+				take(u);
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Checks for an edge between two live vertices by scanning
+	 * the shorter row.
+	 */
+	private boolean adjacent(int a, int b) {
+		if (adjLength[a] > adjLength[b]) {
+			int n = a;
+			a = b;
+			b = n;
+		}
+		for (int p = 0; p < adjLength[a]; p++) {
+			if (adj[a][p] == b) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Folds a degree 2 vertex v and its unconnected neighbors a
+	 * and b into a new vertex w joined to every other neighbor
+	 * of a and b.
+	 */
+	private void fold(int v, int a, int b) {
+		int w = count++;
+		time++;
+		int[] row = new int[adjLength[a] + adjLength[b]];
+		int n = 0;
+		for (int side = 0; side < 2; side++) {
+			int s = side == 0 ? a : b;
+			for (int p = 0; p < adjLength[s]; p++) {
+				int x = adj[s][p];
+				if (state[x] != ALIVE || x == v) {
+					continue;
+				}
+				if (stamp[x] == time) {
+					// x lost both a and b and gains only w
+					deg[x]--;
+				} else {
+					stamp[x] = time;
+					row[n++] = x;
+				}
+			}
+		}
+		Arrays.sort(row, 0, n);
+		state[v] = FOLDED;
+		state[a] = FOLDED;
+		state[b] = FOLDED;
+		adj[w] = row;
+		adjLength[w] = n;
+		deg[w] = n;
+		for (int i = 0; i < n; i++) {
+			int x = row[i];
+			append(x, w);
+			if (deg[x] <= DOMINATION_DEGREE) {
+				push(x);
+			}
+		}
+		push(w);
+		if (4 * foldCount + 4 > folds.length) {
+			folds = Arrays.copyOf(folds, 2 * folds.length);
+		}
+		folds[4 * foldCount] = v;
+		folds[4 * foldCount + 1] = a;
+		folds[4 * foldCount + 2] = b;
+		folds[4 * foldCount + 3] = w;
+		foldCount++;
+	}
+
+	/**
+	 * Puts a vertex in the cover and drops its edges.
+	 */
+	private void take(int v) {
+		remove(v, IN);
+		forced++;
+	}
+
+	/**
+	 * Takes a vertex out of the graph, lowering the degree of
+	 * its live neighbors.
+	 */
+	private void remove(int v, byte to) {
+		state[v] = to;
+		for (int p = 0; p < adjLength[v]; p++) {
+			int u = adj[v][p];
+			if (state[u] == ALIVE) {
+				deg[u]--;
+				if (deg[u] <= DOMINATION_DEGREE) {
+					push(u);
+				}
+			}
+		}
+		deg[v] = 0;
+	}
+
+	private void append(int x, int w) {
+		if (adjLength[x] == adj[x].length) {
+			adj[x] = Arrays.copyOf(adj[x], Math.max(4, 2 * adjLength[x]));
+		}
+		adj[x][adjLength[x]++] = w;
+	}
+
+	private void push(int v) {
+		if (queued[v]) {
+			return;
+		}
+		if (workSize == work.length) {
+			work = Arrays.copyOf(work, 2 * workSize);
+		}
+		queued[v] = true;
+		work[workSize++] = v;
+	}
+}
@@ -0,0 +1,397 @@
+package Vertex;
+
+import java.util.BitSet;
+import java.util.Random;
+
+/**
+ * LocalSearch shrinks a vertex cover within a time budget, in
+ * the style of NuMVC and FastVC. Redundant vertices are dropped
+ * first. Then, whenever every edge is covered, the cover is
+ * kept as the best so far and the vertex that loses the least
+ * is taken out; otherwise one vertex leaves the cover and one
+ * endpoint of an uncovered edge joins it.
+ *
+ * Edges carry weights that grow while they stay uncovered, so
+ * the search is pushed towards the edges it keeps missing. The
+ * score of every vertex, the weight it would cover by joining
+ * or uncover by leaving, is kept up to date as its neighbors
+ * move, at a cost of one step per edge. The vertex to take out
+ * is the best of a few drawn at random from the cover, and a
+ * vertex whose neighborhood has not changed since it left may
+ * not come back.
+ *
+ * The cover returned is always one seen with every edge
+ * covered, so it is never worse than the one given.
+ *
+ * @author Siddhartha
+ *
+ */
+public class LocalSearch {
+
+	static final int SAMPLES = 50;
+	static final double FORGET = 0.3;
+
+	Graph graph;
+	int size = 0;
+	int edgeCount = 0;
+	int[] offsets;
+	int[] neighbors;
+	int[] edgeId;
+	int[] end1;
+	int[] end2;
+	boolean[] fixed;
+
+	int[] weight;
+	long totalWeight = 0;
+	long threshold;
+	long[] score;
+	long[] stamp;
+	boolean[] confChange;
+	boolean[] inCover;
+
+	int[] coverList;
+	int[] coverPos;
+	int coverCount = 0;
+	int[] uncovered;
+	int[] uncoveredPos;
+	int uncoveredCount = 0;
+
+	long steps = 0;
+	Random random = new Random(1);
+
+	/**
+	 * Numbers the edges of a graph for the search. The two
+	 * entries of an edge in the sorted rows get the same number.
+	 * A vertex with a loop has to be in every cover, so it is
+	 * fixed in it.
+	 * @param graph the graph the covers are of
+	 */
+	public LocalSearch(Graph graph) {
+		this.graph = graph;
+		size = graph.getSize();
+		offsets = graph.getOffsets();
+		neighbors = graph.getNeighbors();
+		edgeId = new int[neighbors.length];
+		end1 = new int[neighbors.length / 2];
+		end2 = new int[neighbors.length / 2];
+		fixed = new boolean[size];
+		int[] next = new int[size];
+		for (int v = 0; v < size; v++) {
+			next[v] = offsets[v];
+		}
+		int u;
+		for (int v = 0; v < size; v++) {
+			for (int p = offsets[v]; p < offsets[v + 1]; p++) {
+				u = neighbors[p];
+				if (u == v) {
+					edgeId[p] = -1;
+					fixed[v] = true;
+				} else if (v < u) {
+					end1[edgeCount] = v;
+					end2[edgeCount] = u;
+					edgeId[p] = edgeCount;
+					edgeId[next[u]++] = edgeCount;
+					edgeCount++;
+				} else {
+					next[v]++;
+				}
+			}
+		}
+		threshold = Math.max(size / 2, 2);
+	}
+
+	/**
+	 * Searches for a smaller cover until the time is up.
+	 * @param cover a vertex cover to start from; vertices it
+	 * misses are added until it covers every edge
+	 * @param millis the time budget in milliseconds
+	 * @return best the smallest cover found
+	 */
+	public BitSet improve(BitSet cover, long millis) {
+		long deadline = System.nanoTime() + millis * 1000000L;
+		start(cover);
+		BitSet best = snapshot();
+		int bestCount = coverCount;
+		int tabu = -1;
+		int v;
+		steps = 0;
+		while (true) {
+			if ((steps & 255) == 0 && System.nanoTime() - deadline >= 0) {
+				break;
+			}
+			steps++;
+			if (uncoveredCount == 0) {
+				if (coverCount < bestCount) {
+					best = snapshot();
+					bestCount = coverCount;
+				}
+				if (coverCount == 0) {
+					break;
+				}
+				remove(leastLoss());
+				continue;
+			}
+			v = sampleLeastLoss(tabu);
+			if (v >= 0) {
+				remove(v);
+			}
+			int e = uncovered[random.nextInt(uncoveredCount)];
+			v = pickEndpoint(end1[e], end2[e]);
+			add(v);
+			tabu = v;
+			raiseWeights();
+		}
+		return best;
+	}
+
+	/**
+	 * Returns the number of steps the last search made.
+	 * @return steps the number of moves
+	 */
+	public long getSteps() {
+		return steps;
+	}
+
+	/**
+	 * Sets up the weights, the cover and the scores, makes the
+	 * cover valid and drops the vertices it does not need.
+	 */
+	private void start(BitSet cover) {
+		weight = new int[edgeCount];
+		score = new long[size];
+		stamp = new long[size];
+		confChange = new boolean[size];
+		inCover = new boolean[size];
+		coverList = new int[size];
+		coverPos = new int[size];
+		coverCount = 0;
+		uncovered = new int[edgeCount];
+		uncoveredPos = new int[edgeCount];
+		uncoveredCount = 0;
+		totalWeight = edgeCount;
+		for (int e = 0; e < edgeCount; e++) {
+			weight[e] = 1;
+			uncoveredPos[e] = -1;
+		}
+		for (int v = 0; v < size; v++) {
+			coverPos[v] = -1;
+			confChange[v] = true;
+			inCover[v] = fixed[v] || (cover.get(v) && offsets[v + 1] > offsets[v]);
+			if (inCover[v]) {
+				list(v);
+			}
+		}
+		for (int e = 0; e < edgeCount; e++) {
+			if (!inCover[end1[e]] && !inCover[end2[e]]) {
+				uncover(e);
+				score[end1[e]]++;
+				score[end2[e]]++;
+			} else if (inCover[end1[e]] != inCover[end2[e]]) {
+				score[inCover[end1[e]] ? end1[e] : end2[e]]--;
+			}
+		}
+		while (uncoveredCount > 0) {
+			int e = uncovered[0];
+			add(score[end1[e]] >= score[end2[e]] ? end1[e] : end2[e]);
+		}
+		for (int i = coverCount - 1; i >= 0; i--) {
+			if (score[coverList[i]] == 0) {
+				remove(coverList[i]);
+			}
+		}
+	}
+
+	/**
+	 * Finds the vertex of the cover that uncovers the least
+	 * weight, looking at all of them.
+	 */
+	private int leastLoss() {
+		int best = coverList[0];
+		for (int i = 1; i < coverCount; i++) {
+			best = better(coverList[i], best);
+		}
+		return best;
+	}
+
+	/**
+	 * Finds the vertex that uncovers the least weight among a
+	 * few drawn from the cover, leaving out the one just added.
+	 */
+	private int sampleLeastLoss(int tabu) {
+		int best = -1;
+		int v;
+		if (coverCount <= SAMPLES) {
+			for (int i = 0; i < coverCount; i++) {
+				v = coverList[i];
+				if (v != tabu) {
+					best = best < 0 ? v : better(v, best);
+				}
+			}
+			return best;
+		}
+		for (int i = 0; i < SAMPLES; i++) {
+			v = coverList[random.nextInt(coverCount)];
+			if (v != tabu) {
+				best = best < 0 ? v : better(v, best);
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Picks the endpoint of an uncovered edge to add: one whose
+	 * neighborhood changed since it left, covering the most
+	 * weight, the one that left first on a tie.
+	 */
+	private int pickEndpoint(int a, int b) {
+		if (!confChange[a]) {
+			return b;
+		}
+		if (!confChange[b]) {
+			return a;
+		}
+		return better(a, b);
+	}
+
+	private int better(int a, int b) {
+		if (score[a] != score[b]) {
+			return score[a] > score[b] ? a : b;
+		}
+		return stamp[a] <= stamp[b] ? a : b;
+	}
+
+	/**
+	 * Puts a vertex in the cover. Its edges to vertices outside
+	 * become covered by it alone; its edges to vertices inside
+	 * are no longer theirs alone.
+	 */
+	private void add(int v) {
+		inCover[v] = true;
+		list(v);
+		score[v] = -score[v];
+		stamp[v] = steps;
+		int u;
+		int e;
+		for (int p = offsets[v]; p < offsets[v + 1]; p++) {
+			e = edgeId[p];
+			if (e < 0) {
+				continue;
+			}
+			u = neighbors[p];
+			if (inCover[u]) {
+				score[u] += weight[e];
+			} else {
+				score[u] -= weight[e];
+				confChange[u] = true;
+				cover(e);
+			}
+		}
+	}
+
+	/**
+	 * Takes a vertex out of the cover, the reverse of add. It
+	 * may not come back until a neighbor moves.
+	 */
+	private void remove(int v) {
+		inCover[v] = false;
+		unlist(v);
+		score[v] = -score[v];
+		stamp[v] = steps;
+		confChange[v] = false;
+		int u;
+		int e;
+		for (int p = offsets[v]; p < offsets[v + 1]; p++) {
+			e = edgeId[p];
+			if (e < 0) {
+				continue;
+			}
+			u = neighbors[p];
+			confChange[u] = true;
+			if (inCover[u]) {
+				score[u] -= weight[e];
+			} else {
+				score[u] += weight[e];
+				uncover(e);
+			}
+		}
+	}
+
+	/**
+	 * Adds one to the weight of every uncovered edge, and halves
+	 * down all weights once their average grows too large.
+	 */
+	private void raiseWeights() {
+		int e;
+		for (int i = 0; i < uncoveredCount; i++) {
+			e = uncovered[i];
+			weight[e]++;
+			score[end1[e]]++;
+			score[end2[e]]++;
+		}
+		totalWeight += uncoveredCount;
+		if (totalWeight > threshold * edgeCount) {
+			forgetWeights();
+		}
+	}
+
+	/**
+	 * Scales every weight down and works the scores out again.
+	 */
+	private void forgetWeights() {
+		totalWeight = 0;
+		for (int e = 0; e < edgeCount; e++) {
+			weight[e] = Math.max(1, (int) (weight[e] * FORGET));
+			totalWeight += weight[e];
+		}
+		for (int v = 0; v < size; v++) {
+			score[v] = 0;
+		}
+		for (int e = 0; e < edgeCount; e++) {
+			if (!inCover[end1[e]] && !inCover[end2[e]]) {
+				score[end1[e]] += weight[e];
+				score[end2[e]] += weight[e];
+			} else if (inCover[end1[e]] != inCover[end2[e]]) {
+				score[inCover[end1[e]] ? end1[e] : end2[e]] -= weight[e];
+			}
+		}
+	}
+
+	private BitSet snapshot() {
+		BitSet cover = new BitSet(size);
+		for (int v = 0; v < size; v++) {
+			if (inCover[v]) {
+				cover.set(v);
+			}
+		}
+		return cover;
+	}
+
+	private void list(int v) {
+		if (fixed[v] || coverPos[v] >= 0) {
+			return;
+		}
+		coverPos[v] = coverCount;
+		coverList[coverCount++] = v;
+	}
+
+	private void unlist(int v) {
+		int i = coverPos[v];
+		int last = coverList[--coverCount];
+		coverList[i] = last;
+		coverPos[last] = i;
+		coverPos[v] = -1;
+	}
+
+	private void uncover(int e) {
+		uncoveredPos[e] = uncoveredCount;
+		uncovered[uncoveredCount++] = e;
+	}
+
+	private void cover(int e) {
+		int i = uncoveredPos[e];
+		int last = uncovered[--uncoveredCount];
+		uncovered[i] = last;
+		uncoveredPos[last] = i;
+		uncoveredPos[e] = -1;
+	}
+}
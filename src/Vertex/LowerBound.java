@@ -0,0 +1,81 @@
+package Vertex;
+
+/**
+ * LowerBound gives sizes that no vertex cover of a graph can be
+ * smaller than, so a cover can be judged without an exact
+ * search. Every cover needs one vertex of each edge of a
+ * matching, so the size of any matching is a bound.
+ *
+ * The LP bound is the optimum of the vertex cover linear
+ * program, which is half of a maximum matching of the bipartite
+ * double cover: every vertex on both sides and every edge both
+ * ways, which is the graph's own CSR read from left to right.
+ * It is never below the maximum matching of the graph.
+ *
+ * @author Siddhartha
+ *
+ */
+public class LowerBound {
+
+	/**
+	 * Returns the size of a greedy maximal matching, taking the
+	 * edges row by row. The cover it gives is at most twice
+	 * this size.
+	 *
+	 * @param graph the graph
+	 * @return size the number of matched edges
+	 */
+	public static int matching(Graph graph) {
+		int size = graph.getSize();
+		int[] offsets = graph.getOffsets();
+		int[] neighbors = graph.getNeighbors();
+		boolean[] matched = new boolean[size];
+		int count = 0;
+		for (int v = 0; v < size; v++) {
+			if (matched[v]) {
+				continue;
+			}
+			for (int p = offsets[v]; p < offsets[v + 1]; p++) {
+				if (!matched[neighbors[p]]) {
+					matched[v] = true;
+					matched[neighbors[p]] = true;
+					count++;
+					break;
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns the LP bound rounded up, from a Hopcroft-Karp
+	 * maximum matching of the bipartite double cover started
+	 * from a greedy one.
+	 *
+	 * @param graph the graph
+	 * @return bound the least whole number at or above the LP
+	 * optimum
+	 */
+	public static int lp(Graph graph) {
+		int size = graph.getSize();
+		int[] offsets = graph.getOffsets();
+		int[] neighbors = graph.getNeighbors();
+		int[] left = new int[size];
+		int leftCount = 0;
+		for (int v = 0; v < size; v++) {
+			if (offsets[v + 1] > offsets[v]) {
+				left[leftCount++] = v;
+			}
+		}
+		HopcroftKarp maximum = new HopcroftKarp(offsets, neighbors, size, left, leftCount);
+		for (int i = 0; i < leftCount; i++) {
+			int v = left[i];
+			for (int p = offsets[v]; p < offsets[v + 1]; p++) {
+				if (maximum.match(v, neighbors[p])) {
+					break;
+				}
+			}
+		}
+		return (maximum.run() + 1) / 2;
+	}
+}
@@ -0,0 +1,169 @@
+package Vertex;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Metrics records the wall time and the bytes allocated by each
+ * phase of a tool, and counters such as the edges parsed or the
+ * size of a matching. A phase run more than once adds up.
+ *
+ * Every phase and counter is also committed as a JFR event, so
+ * a run under -XX:StartFlightRecording shows them next to the
+ * garbage collections and the hot methods. On Java 8 there is
+ * no JFR and the events are left out. With -Dvc.summary=true
+ * the report ends with one line of key=value pairs for scripts.
+ *
+ * Allocated bytes are those of the thread that runs the tool;
+ * work handed to other threads is not counted.
+ *
+ * @author Siddhartha
+ *
+ */
+public class Metrics {
+
+	static final String SUMMARY = "vc.summary";
+
+	static final EventType PHASE = new EventType("VertexCover.Phase", "Phase",
+			"A phase of a vertex cover tool", new Class<?>[] { String.class, String.class, long.class },
+			new String[] { "tool", "phase", "allocated" }, new String[] { "Tool", "Phase", "Allocated" },
+			"allocated");
+	static final EventType COUNTER = new EventType("VertexCover.Counter", "Counter",
+			"A count made by a vertex cover tool", new Class<?>[] { String.class, String.class, long.class },
+			new String[] { "tool", "name", "value" }, new String[] { "Tool", "Counter", "Value" }, null);
+
+	private String tool;
+	private long start;
+	private LinkedHashMap<String, long[]> phases = new LinkedHashMap<String, long[]>();
+	private LinkedHashMap<String, Long> counters = new LinkedHashMap<String, Long>();
+
+	private String phase;
+	private long phaseTime;
+	private long phaseBytes;
+	private Object event;
+
+	private com.sun.management.ThreadMXBean allocation;
+
+	/**
+	 * Starts the clock for a tool.
+	 * @param tool the name of the tool in the report
+	 */
+	public Metrics(String tool) {
+		this.tool = tool;
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			allocation = (com.sun.management.ThreadMXBean) bean;
+			if (!allocation.isThreadAllocatedMemoryEnabled()) {
+				allocation = null;
+			}
+		}
+		start = System.nanoTime();
+	}
+
+	/**
+	 * Starts a phase, ending the one before if it is still open.
+	 * @param name the name of the phase
+	 */
+	public void begin(String name) {
+		if (phase != null) {
+			end();
+		}
+		phase = name;
+		event = PHASE.begin();
+		phaseBytes = allocatedBytes();
+		phaseTime = System.nanoTime();
+	}
+
+	/**
+	 * Ends the open phase and adds its time and allocation to
+	 * the phase of the same name.
+	 */
+	public void end() {
+		if (phase == null) {
+			return;
+		}
+		long time = System.nanoTime() - phaseTime;
+		long bytes = allocatedBytes() - phaseBytes;
+		long[] total = phases.get(phase);
+		if (total == null) {
+			total = new long[2];
+			phases.put(phase, total);
+		}
+		total[0] += time;
+		total[1] += bytes;
+		PHASE.commit(event, tool, phase, bytes);
+		phase = null;
+		event = null;
+	}
+
+	/**
+	 * Adds to a counter.
+	 * @param name the name of the counter
+	 * @param value the amount to add
+	 */
+	public void count(String name, long value) {
+		Long old = counters.get(name);
+		counters.put(name, old == null ? value : old + value);
+		COUNTER.commit(COUNTER.newEvent(), tool, name, value);
+	}
+
+	/**
+	 * Returns the total of a counter
+	 * @param name the name of the counter
+	 * @return value the total, 0 if it was never counted
+	 */
+	public long getCount(String name) {
+		Long value = counters.get(name);
+		return value == null ? 0 : value;
+	}
+
+	/**
+	 * Returns the time since the tool started
+	 * @return runtime in nanoseconds
+	 */
+	public long getRuntime() {
+		return System.nanoTime() - start;
+	}
+
+	/**
+	 * Ends the open phase and prints one line per phase and per
+	 * counter, then the runtime, then the summary line if it
+	 * was asked for.
+	 * @param o PrintStream prints the report.
+	 */
+	public void report(PrintStream o) {
+		end();
+		long runtime = getRuntime();
+		StringBuilder summary = new StringBuilder("summary tool=").append(tool);
+		Iterator<Map.Entry<String, long[]>> itr = phases.entrySet().iterator();
+		while (itr.hasNext()) {
+			Map.Entry<String, long[]> entry = itr.next();
+			long[] total = entry.getValue();
+			o.println(entry.getKey() + " = " + total[0] + " ns, " + total[1] + " bytes");
+			summary.append(' ').append(entry.getKey()).append("_ns=").append(total[0]);
+			summary.append(' ').append(entry.getKey()).append("_bytes=").append(total[1]);
+		}
+		Iterator<Map.Entry<String, Long>> itr2 = counters.entrySet().iterator();
+		while (itr2.hasNext()) {
+			Map.Entry<String, Long> entry = itr2.next();
+			o.println(entry.getKey() + " = " + entry.getValue());
+			summary.append(' ').append(entry.getKey()).append('=').append(entry.getValue());
+		}
+		o.println("Runtime = " + runtime);
+		summary.append(" runtime_ns=").append(runtime);
+		if (Boolean.getBoolean(SUMMARY)) {
+			o.println(summary);
+		}
+	}
+
+	private long allocatedBytes() {
+		if (allocation == null) {
+			return 0;
+		}
+		return allocation.getThreadAllocatedBytes(Thread.currentThread().getId());
+	}
+}
@@ -0,0 +1,328 @@
+package Vertex;
+
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * ParallelApproximation runs the two approximation families on
+ * a ForkJoinPool of a given size, working in rounds over the
+ * vertices that still have edges.
+ *
+ * matching builds a maximal matching with random priorities:
+ * each round every live edge draws a priority, every vertex
+ * points at its best live edge, and an edge that both of its
+ * vertices point at joins the matching. The best edge of the
+ * round is always taken, so every round makes progress, and
+ * when no live edge is left the matching is maximal and the
+ * cover is at most twice the optimum, as with algorithm3.
+ *
+ * maxDegree removes vertices of the highest degree in batches:
+ * each round the vertices of the highest degree that beat
+ * every neighbor of the same degree on a random priority are
+ * removed together. No two of them are adjacent, so removing
+ * them at once is the same as removing them one at a time,
+ * as algorithm2 would.
+ *
+ * @author Siddhartha
+ *
+ */
+public class ParallelApproximation {
+
+	static final int GRAIN = 1024;
+	static final int NONE = -1;
+
+	Graph graph;
+	int size = 0;
+	int[] offsets;
+	int[] neighbors;
+	ForkJoinPool pool;
+
+	boolean[] covered;
+	boolean[] picked;
+	int[] best;
+	AtomicIntegerArray degree;
+	int[] active;
+	int activeCount = 0;
+	int[] batch;
+	int batchCount = 0;
+	int top = 0;
+	long salt = 0;
+	int rounds = 0;
+
+	/**
+	 * Makes the engines for a graph on a pool of the given size.
+	 * @param graph the graph to cover
+	 * @param threads the number of worker threads
+	 */
+	public ParallelApproximation(Graph graph, int threads) {
+		this.graph = graph;
+		size = graph.getSize();
+		offsets = graph.getOffsets();
+		neighbors = graph.getNeighbors();
+		pool = new ForkJoinPool(threads);
+	}
+
+	/**
+	 * Finds a vertex cover from a maximal matching built in
+	 * parallel rounds.
+	 * @return cover both vertices of every matched edge
+	 */
+	public BitSet matching() {
+		covered = new boolean[size];
+		best = new int[size];
+		listActive();
+		rounds = 0;
+		while (activeCount > 0) {
+			rounds++;
+			salt = mix(rounds);
+			forEach(activeCount, new Body() {
+				public void run(int j) {
+					best[active[j]] = bestEdge(active[j]);
+				}
+			});
+			forEach(activeCount, new Body() {
+				public void run(int j) {
+					int v = active[j];
+					if (best[v] != NONE && best[best[v]] == v) {
+						covered[v] = true;
+					}
+				}
+			});
+			int n = 0;
+			for (int j = 0; j < activeCount; j++) {
+				int v = active[j];
+				if (!covered[v] && best[v] != NONE) {
+					active[n++] = v;
+				}
+			}
+			activeCount = n;
+		}
+		return toBitSet();
+	}
+
+	/**
+	 * Finds a vertex cover by removing vertices of the highest
+	 * degree, a batch of them per parallel round.
+	 * @return cover the removed vertices
+	 */
+	public BitSet maxDegree() {
+		covered = new boolean[size];
+		picked = new boolean[size];
+		batch = new int[size];
+		degree = new AtomicIntegerArray(size);
+		for (int v = 0; v < size; v++) {
+			degree.set(v, graph.degree(v));
+		}
+		listActive();
+		rounds = 0;
+		while (activeCount > 0) {
+			top = pool.invoke(new Max(0, activeCount));
+			if (top == 0) {
+				break;
+			}
+			rounds++;
+			salt = mix(rounds);
+			forEach(activeCount, new Body() {
+				public void run(int j) {
+					int v = active[j];
+					picked[v] = degree.get(v) == top && wins(v);
+				}
+			});
+			int n = 0;
+			batchCount = 0;
+			for (int j = 0; j < activeCount; j++) {
+				int v = active[j];
+				if (picked[v]) {
+					covered[v] = true;
+					batch[batchCount++] = v;
+				} else if (degree.get(v) > 0) {
+					active[n++] = v;
+				}
+			}
+			activeCount = n;
+			forEach(batchCount, new Body() {
+				public void run(int j) {
+					int v = batch[j];
+					for (int p = offsets[v]; p < offsets[v + 1]; p++) {
+						if (!covered[neighbors[p]]) {
+							degree.decrementAndGet(neighbors[p]);
+						}
+					}
+					degree.set(v, 0);
+				}
+			});
+		}
+		return toBitSet();
+	}
+
+	/**
+	 * Returns the number of rounds the last engine took.
+	 * @return rounds the number of parallel rounds
+	 */
+	public int getRounds() {
+		return rounds;
+	}
+
+	/**
+	 * Stops the worker threads.
+	 */
+	public void shutdown() {
+		pool.shutdown();
+	}
+
+	/**
+	 * Returns the neighbor across the best live edge of a vertex,
+	 * or NONE. Edges are ordered by priority, then by their lower
+	 * and higher vertex, which for the edges of one vertex is the
+	 * order of the other vertex, so both ends of an edge agree.
+	 */
+	int bestEdge(int v) {
+		int choice = NONE;
+		long key = 0;
+		long k;
+		int u;
+		for (int p = offsets[v]; p < offsets[v + 1]; p++) {
+			u = neighbors[p];
+			if (covered[u]) {
+				continue;
+			}
+			k = v < u ? priority(v, u) : priority(u, v);
+			if (choice == NONE || k > key || (k == key && u < choice)) {
+				choice = u;
+				key = k;
+			}
+		}
+		return choice;
+	}
+
+	/**
+	 * Checks that a vertex of the highest degree beats every live
+	 * neighbor of the same degree on priority, then on id.
+	 */
+	boolean wins(int v) {
+		long k = priority(v, v);
+		long l;
+		int u;
+		for (int p = offsets[v]; p < offsets[v + 1]; p++) {
+			u = neighbors[p];
+			if (u == v || covered[u] || degree.get(u) != top) {
+				continue;
+			}
+			l = priority(u, u);
+			if (l > k || (l == k && u < v)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private long priority(int a, int b) {
+		return mix((((long) a << 32) | (b & 0xffffffffL)) ^ salt);
+	}
+
+	/**
+	 * Scrambles the bits of a long, after the SplitMix64
+	 * finalizer.
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	private void listActive() {
+		active = new int[size];
+		activeCount = 0;
+		for (int v = 0; v < size; v++) {
+			if (graph.degree(v) > 0) {
+				active[activeCount++] = v;
+			}
+		}
+	}
+
+	private BitSet toBitSet() {
+		BitSet cover = new BitSet(size);
+		for (int v = 0; v < size; v++) {
+			if (covered[v]) {
+				cover.set(v);
+			}
+		}
+		return cover;
+	}
+
+	private void forEach(int n, Body body) {
+		if (n > 0) {
+			pool.invoke(new Range(body, 0, n));
+		}
+	}
+
+	/**
+	 * The work done for one position of a parallel loop.
+	 */
+	private interface Body {
+		void run(int j);
+	}
+
+	/**
+	 * Splits a loop over positions lo..hi-1 in halves until the
+	 * pieces are small enough to run.
+	 */
+	private static class Range extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		Body body;
+		int lo;
+		int hi;
+
+		Range(Body body, int lo, int hi) {
+			this.body = body;
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		protected void compute() {
+			if (hi - lo <= GRAIN) {
+				for (int j = lo; j < hi; j++) {
+					body.run(j);
+				}
+			} else {
+				int mid = (lo + hi) >>> 1;
+				invokeAll(new Range(body, lo, mid), new Range(body, mid, hi));
+			}
+		}
+	}
+
+	/**
+	 * Finds the highest degree among the active vertices at
+	 * positions lo..hi-1.
+	 */
+	private class Max extends RecursiveTask<Integer> {
+		private static final long serialVersionUID = 1L;
+
+		int lo;
+		int hi;
+
+		Max(int lo, int hi) {
+			this.lo = lo;
+			this.hi = hi;
+		}
+
+		protected Integer compute() {
+			if (hi - lo <= GRAIN) {
+				int max = 0;
+				for (int j = lo; j < hi; j++) {
+					max = Math.max(max, degree.get(active[j]));
+				}
+				return max;
+			}
+			int mid = (lo + hi) >>> 1;
+			Max left = new Max(lo, mid);
+			left.fork();
+			int right = new Max(mid, hi).compute();
+			return Math.max(left.join(), right);
+		}
+	}
+}
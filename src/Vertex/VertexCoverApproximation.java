@@ -2,27 +2,52 @@ package Vertex;
 
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.IOException;
 import java.io.PrintStream;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.Scanner;
+import java.nio.channels.ReadableByteChannel;
+import java.util.Arrays;
+import java.util.BitSet;
 
 /**
  * VertexCoverApproximation is a class that runs two different
  * algorithms. Algorithm2 removes edges from the highest order
  * vertex until all edges are removed. Algorithm3 removes the
  * first edge it encounters and all edges associated with those
- * vertices.
+ * vertices; option 1 runs it as a single pass maximal matching.
+ * Options 2 and 3 run parallel versions of the matching and of
+ * algorithm2 on a ForkJoinPool, with as many threads as there
+ * are processors unless a count is given. Option 4 streams the
+ * edges through the matching without loading the graph, so
+ * only a number for each vertex and a bitset of the covered
+ * ones are kept, and memory grows with the vertices and not
+ * with the edges or the largest id; the file "-" is read from
+ * standard input. Given a time budget, the cover of a
+ * loaded graph is then shrunk by a LocalSearch. Every run also
+ * reports a lower bound on the size of a minimum cover, and how
+ * far the cover can be from it; -Dvc.lp=true adds the LP bound.
+ * With -Dvc.kernel=true a loaded graph is first shrunk by the
+ * Kernel rules, the approximation covers what is left, and the
+ * cover is unfolded back onto the whole graph.
  * 
  * @author Siddhartha
  *
  */
 public class VertexCoverApproximation {
 	
-	ArrayList<Edge> edges = new ArrayList<Edge>();
-	ArrayList<Integer> output = new ArrayList<Integer>();
+	static final String LP = "vc.lp";
+	static final String KERNEL = "vc.kernel";
+
+	Graph graph;
+	Graph input;
+	Kernel kernel;
+	IdMap ids;
+	BitSet output = new BitSet();
 	int size = 0;
+	int[] degree;
+	boolean[] removed;
+	int remaining = 0;
+	BucketQueue queue;
+	Metrics metrics = new Metrics("VertexCoverApproximation");
 	
 	/**
 	 * Main method that checks for two arguments and starts the
@@ -30,14 +55,17 @@ public class VertexCoverApproximation {
 	 * @param args array of command line inputs
 	 */
 	public static void main(String[] args) {
-		long time = System.nanoTime();
-		if (args.length != 2) {
-			System.out.println("Usage: java VertexCoverApproximation <filename> [0|1]");
-		} else {
-			VertexCoverApproximation vCover = new VertexCoverApproximation();
+		VertexCoverApproximation vCover = new VertexCoverApproximation();
+		if (args.length < 2 || args.length > 4) {
+			System.out.println("Usage: java VertexCoverApproximation <filename> [0|1|2|3|4] [threads] [millis]");
+		} else if (args.length == 2) {
 			vCover.startUI(args[0], args[1]);
+		} else if (args.length == 3) {
+			vCover.startUI(args[0], args[1], Integer.parseInt(args[2]));
+		} else {
+			vCover.startUI(args[0], args[1], Integer.parseInt(args[2]), Long.parseLong(args[3]));
 		}
-		System.out.println("Runtime = " + (System.nanoTime() - time));
+		vCover.metrics.report(System.out);
 	}
 
 	/**
@@ -45,33 +73,86 @@ public class VertexCoverApproximation {
 	 * output to file
 	 */
 	public void startUI(String file, String option) {
-		Scanner input = getInputScanner(file);
+		startUI(file, option, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Runs through the methods to write the final output to
+	 * file, with the parallel options on the given number of
+	 * threads
+	 *
+	 * @param file the input file
+	 * @param option the algorithm to run, 0 to 3
+	 * @param threads the number of threads for options 2 and 3
+	 */
+	public void startUI(String file, String option, int threads) {
+		startUI(file, option, threads, 0);
+	}
+
+	/**
+	 * Runs through the methods to write the final output to
+	 * file, shrinking the cover by local search for a time
+	 *
+	 * @param file the input file
+	 * @param option the algorithm to run, 0 to 4
+	 * @param threads the number of threads for options 2 and 3
+	 * @param millis the time for the local search, 0 for none
+	 */
+	public void startUI(String file, String option, int threads, long millis) {
 		PrintStream output = getOutputPrintStream();
-		processInput(input);
+		if (option.equals("4")) {
+			metrics.begin("streamInput");
+			streamInput(file);
+		} else {
+			metrics.begin("processInput");
+			processInput(file);
+			metrics.count("edges", graph.getEdgeCount());
+			if (Boolean.getBoolean(KERNEL)) {
+				metrics.begin("reduce");
+				reduce();
+				metrics.count("forced", kernel.getForcedCount());
+				metrics.count("folds", kernel.getFoldCount());
+				metrics.count("kernelEdges", graph.getEdgeCount());
+			}
+		}
 		if (option.equals("0")) {
+			metrics.begin("algorithm2");
 			algorithm2();
 		} else if (option.equals("1")) {
-			algorithm3();
-		} else {
-			System.out.println("Usage: java VertexCoverApproximation <filename> [0|1]");
+			metrics.begin("matching");
+			matching();
+		} else if (option.equals("2")) {
+			metrics.begin("parallelMatching");
+			parallelMatching(threads);
+		} else if (option.equals("3")) {
+			metrics.begin("parallelAlgorithm2");
+			parallelAlgorithm2(threads);
+		} else if (!option.equals("4")) {
+			System.out.println("Usage: java VertexCoverApproximation <filename> [0|1|2|3|4] [threads] [millis]");
 		}
+		if (kernel != null) {
+			metrics.begin("unfold");
+			unfold();
+		}
+		if (millis > 0 && graph != null) {
+			metrics.count("approximation", this.output.cardinality());
+			metrics.begin("improve");
+			improve(millis);
+		}
+		metrics.count("cover", this.output.cardinality());
+		metrics.begin("lowerBound");
+		int bound = lowerBound(Boolean.getBoolean(LP));
+		metrics.end();
+		metrics.count("bound", bound);
+		if (this.output.cardinality() < bound) {
+			throw new IllegalStateException("Cover of " + this.output.cardinality()
+					+ " is below the lower bound " + bound);
+		}
+		System.out.println("Lower bound = " + bound + ", ratio = "
+				+ String.format("%.3f", bound == 0 ? 1.0 : (double) this.output.cardinality() / bound));
+		metrics.begin("finalPrint");
 		finalPrint(output);
-	}
-	
-	/**
-	 * Gets the input file and returns it.
-	 * 
-	 * @param name a String to obtain an input file.
-	 * @return input the input file to be manipulated.
-	 */
-	public Scanner getInputScanner(String name) {
-		Scanner input = null;	
-			try {
-				input = new Scanner(new File(name));
-			} catch (FileNotFoundException e) {
-				System.out.println(e.getMessage());
-			}
-		return input;
+		metrics.end();
 	}
 	
 	/**
@@ -92,80 +173,157 @@ public class VertexCoverApproximation {
 	}
 	
 	/**
-	 * Processes the input file and populates the ArrayList.
+	 * Processes the input file and populates the graph.
 	 * 
-	 * @param input scanner that contains the file to process
+	 * @param file the name of the file to process
 	 */
-	public void processInput(Scanner input) {
-		int v1;
-		int v2;
-		while(input.hasNextLine()) {
-			v1 = input.nextInt();
-			v2 = input.nextInt();
-			input.nextLine().trim();
-			Edge e = new Edge(v1, v2);
-			edges.add(e);
-			if (size < v1) {
-				size = v1;
-			}
-			if (size < v2) {
-				size = v2;
-			}
+	public void processInput(String file) {
+		try {
+			graph = GraphLoader.load(file);
+		} catch (IOException e) {
+			System.out.println(e.getMessage());
+			graph = new GraphBuilder().build();
+		}
+		processGraph(graph);
+	}
+	
+	/**
+	 * Starts over on a graph that is already loaded, clearing
+	 * the output and every removed vertex.
+	 * 
+	 * @param g the graph to cover
+	 */
+	public void processGraph(Graph g) {
+		graph = g;
+		output = new BitSet(graph.getSize());
+		size = graph.getSize();
+		degree = new int[size];
+		removed = new boolean[size];
+		for (int i = 0; i < size; i++) {
+			degree[i] = graph.degree(i);
 		}
-		size++;
+		remaining = graph.getEdgeCount();
 	}
 	
+	/**
+	 * Shrinks the graph with the Kernel rules, so the
+	 * approximations that follow cover only the kernel. The
+	 * whole graph is kept for unfold.
+	 */
+	public void reduce() {
+		input = graph;
+		kernel = new Kernel(graph);
+		kernel.reduce();
+		processGraph(kernel.getKernel());
+	}
+
+	/**
+	 * Turns the cover of the kernel into a cover of the whole
+	 * graph, adding the vertices the rules chose, and checks it
+	 * against every edge.
+	 */
+	public void unfold() {
+		BitSet cover = kernel.unfold(output);
+		processGraph(input);
+		addCover(cover);
+		kernel = null;
+		input = null;
+		if (!isCover()) {
+			throw new IllegalStateException("Unfolded cover misses an edge");
+		}
+	}
+
+	/**
+	 * Checks that the cover found so far has a vertex of every
+	 * edge of the graph.
+	 * @return true if no edge is left uncovered
+	 */
+	public boolean isCover() {
+		for (int e = 0; e < graph.getEdgeCount(); e++) {
+			if (!output.get(graph.getV1(e)) && !output.get(graph.getV2(e))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * This method returns the vertex that contains the most
-	 * edges in the list.
+	 * remaining edges.
 	 * 
 	 * @return vertex an integer that has the most edges
 	 */
 	public int hiVertex() {
-		int[] tally = new int[size];
 		int vertex = 0;
-		Edge e;
-		Iterator<Edge> itr = edges.iterator();
-		while(itr.hasNext()) {
-			e = itr.next();
-			tally[e.getV1()]++;
-			tally[e.getV2()]++;
-		}
-		for (int i = 0; i < tally.length; i++) {
-			if (tally[vertex] < tally[i]) {
+		for (int i = 0; i < degree.length; i++) {
+			if (degree[vertex] < degree[i]) {
 				vertex = i;
 			}
 		}
 		return vertex;
 	}
 	
+	/**
+	 * This method returns the first edge in input order that
+	 * has not been removed.
+	 * 
+	 * @return e the index of the edge
+	 */
+	public int firstEdge() {
+		int e = 0;
+		while (removed[graph.getV1(e)] || removed[graph.getV2(e)]) {
+			e++;
+		}
+		return e;
+	}
+	
 	/**
 	 * This method removes all edge with the input vertex
 	 * @param v the vertex which will be removed along with all
 	 * associated edges
 	 */
 	public void removeVertex(int v) {
-		Edge e;
-		Iterator<Edge> itr1 = edges.iterator();
-		while(itr1.hasNext()) {
-			e = itr1.next();
-			if (e.getV1() == v || e.getV2() == v) {
-				itr1.remove();
+		if (removed[v]) {
+			return;
+		}
+		removed[v] = true;
+		int[] offsets = graph.getOffsets();
+		int[] neighbors = graph.getNeighbors();
+		int loops = 0;
+		for (int p = offsets[v]; p < offsets[v + 1]; p++) {
+			if (neighbors[p] == v) {
+				loops++;
+			} else if (!removed[neighbors[p]]) {
+				degree[neighbors[p]]--;
+				remaining--;
+				if (queue != null) {
+					queue.decrement(neighbors[p]);
+				}
 			}
 		}
+		// a loop is in the row twice but counted once
+		remaining -= loops / 2;
+		degree[v] = 0;
+		if (queue != null) {
+			queue.remove(v);
+		}
 	}
 	
 	/**
 	 * This method finds the cover vertex list by removing
-	 * the highest order edges.
+	 * the highest order edges. The degrees are kept in a
+	 * bucket queue so each round takes the same vertex
+	 * hiVertex would, without rescanning every vertex.
 	 */
 	public void algorithm2() {
 		int v;
-		while(!edges.isEmpty()) {
-			v = hiVertex();
-			output.add(v);
+		queue = new BucketQueue(degree);
+		while(remaining > 0) {
+			v = queue.pollMax();
+			output.set(v);
 			removeVertex(v);
 		}
+		queue = null;
 	}
 	
 	/**
@@ -174,29 +332,181 @@ public class VertexCoverApproximation {
 	 * those vertices.
 	 */
 	public void algorithm3() {
+		int e;
 		int v1;
 		int v2;
-		while(!edges.isEmpty()) {
-			v1 = edges.get(0).getV1();
-			v2 = edges.get(0).getV2();
-			output.add(v1);
-			output.add(v2);
+		while(remaining > 0) {
+			e = firstEdge();
+			v1 = graph.getV1(e);
+			v2 = graph.getV2(e);
+			output.set(v1);
+			output.set(v2);
 			removeVertex(v1);
 			removeVertex(v2);
 		}
 	}
 	
 	/**
-	 * Prints the vertex cover list to a file.
+	 * This method finds the same cover as algorithm3 in one
+	 * pass over the edges. An edge is taken when neither of
+	 * its vertices is covered yet, which builds a maximal
+	 * matching in input order.
+	 */
+	public void matching() {
+		int v1;
+		int v2;
+		for (int e = 0; e < graph.getEdgeCount(); e++) {
+			v1 = graph.getV1(e);
+			v2 = graph.getV2(e);
+			if (!output.get(v1) && !output.get(v2)) {
+				output.set(v1);
+				output.set(v2);
+			}
+		}
+	}
+	
+	/**
+	 * Covers an edge list file, or standard input for "-", as
+	 * it is read, without loading the graph.
+	 *
+	 * @param file the name of the file to stream
+	 */
+	public void streamInput(String file) {
+		output = new BitSet();
+		ids = new IdMap(1024);
+		try {
+			ReadableByteChannel channel = GraphLoader.open(file);
+			try {
+				addCover(streamMatching(new EdgeReader(channel)));
+			} finally {
+				if (!file.equals(GraphLoader.STDIN)) {
+					channel.close();
+				}
+			}
+		} catch (IOException e) {
+			System.out.println(e.getMessage());
+		}
+	}
+
+	/**
+	 * This method finds the same cover as matching, deciding
+	 * each edge as it is read. The ids are numbered as they are
+	 * met through an IdMap, so any int id can be streamed.
+	 *
+	 * @param reader the edges to cover
+	 * @return covered the numbers of the vertices of the matched
+	 * edges; getId of the IdMap gives back their ids
+	 * @throws IOException if the edges cannot be read
+	 */
+	public BitSet streamMatching(EdgeReader reader) throws IOException {
+		if (ids == null) {
+			ids = new IdMap(1024);
+		}
+		BitSet covered = new BitSet();
+		long edges = 0;
+		int v1;
+		int v2;
+		while (reader.next()) {
+			v1 = ids.add(reader.getV1());
+			v2 = ids.add(reader.getV2());
+			edges++;
+			if (!covered.get(v1) && !covered.get(v2)) {
+				covered.set(v1);
+				covered.set(v2);
+			}
+		}
+		metrics.count("edges", edges);
+		return covered;
+	}
+
+	/**
+	 * This method finds a cover from a maximal matching built
+	 * in parallel rounds with random edge priorities. Like
+	 * matching, it is at most twice the optimum.
+	 * @param threads the number of threads to run on
+	 */
+	public void parallelMatching(int threads) {
+		ParallelApproximation parallel = new ParallelApproximation(graph, threads);
+		addCover(parallel.matching());
+		parallel.shutdown();
+	}
+
+	/**
+	 * This method finds the cover vertex list by removing the
+	 * highest order vertices, a batch of non adjacent ones per
+	 * parallel round.
+	 * @param threads the number of threads to run on
+	 */
+	public void parallelAlgorithm2(int threads) {
+		ParallelApproximation parallel = new ParallelApproximation(graph, threads);
+		addCover(parallel.maxDegree());
+		parallel.shutdown();
+	}
+
+	/**
+	 * This method shrinks the cover found with a local search
+	 * that runs for a time and keeps the smallest valid cover.
+	 * @param millis the time budget in milliseconds
+	 */
+	public void improve(long millis) {
+		BitSet cover = output;
+		output = new BitSet(size);
+		addCover(new LocalSearch(graph).improve(cover, millis));
+	}
+
+	/**
+	 * This method finds a size no vertex cover of the graph can
+	 * be smaller than: a maximal matching, or with lp the LP
+	 * bound if it is larger. A streamed cover is a maximal
+	 * matching itself, so half its size is the bound.
+	 * @param lp true to also find the LP bound
+	 * @return bound the lower bound
+	 */
+	public int lowerBound(boolean lp) {
+		if (graph == null) {
+			return output.cardinality() / 2;
+		}
+		int bound = LowerBound.matching(graph);
+		if (lp) {
+			bound = Math.max(bound, LowerBound.lp(graph));
+		}
+		return bound;
+	}
+
+	private void addCover(BitSet cover) {
+		output.or(cover);
+		remaining = 0;
+	}
+
+	/**
+	 * Returns the vertex cover found so far.
+	 * @return output the cover vertices
+	 */
+	public BitSet getOutput() {
+		return output;
+	}
+	
+	/**
+	 * Prints the vertex cover to a file in increasing order, by
+	 * the ids the vertices were read with.
 	 * @param o PrintStream prints to file.
 	 */
 	public void finalPrint(PrintStream o) {
-		Collections.sort(output);
-		int v;
-		Iterator<Integer> itr2 = output.iterator();
-		while(itr2.hasNext()) {
-			v = itr2.next();
-			o.println(v);
+		IntWriter writer = new IntWriter(o);
+		if (ids != null) {
+			// streamed vertices are numbered as met, so sort their ids
+			int[] cover = new int[output.cardinality()];
+			int n = 0;
+			for (int v = output.nextSetBit(0); v >= 0; v = output.nextSetBit(v + 1)) {
+				cover[n++] = ids.getId(v);
+			}
+			Arrays.sort(cover);
+			for (int i = 0; i < n; i++) {
+				writer.writeLine(cover[i]);
+			}
+		} else {
+			writer.writeSet(output, graph);
 		}
+		writer.flush();
 	}
 }